@@ -0,0 +1,54 @@
+package com.rednote.cache;
+
+import com.rednote.entity.Post;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 首页 Feed 卡片需要的帖子摘要 (不含正文)
+ * 除点赞数外不可变；点赞数随写回的增量原地更新
+ */
+@Getter
+public class FeedItem {
+
+    private final Long id;
+
+    private final Long userId;
+
+    private final String title;
+
+    // 封面图 (posts.cover_url：第一张图片，有 Feed 尺寸版本时用缩小后的版本)
+    private final String image;
+
+    private final Integer width;
+
+    private final Integer height;
+
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger likeCount;
+
+    public FeedItem(Long id, Long userId, String title, String image, Integer width, Integer height, Integer likeCount) {
+        this.id = id;
+        this.userId = userId;
+        this.title = title;
+        this.image = image;
+        this.width = width;
+        this.height = height;
+        this.likeCount = new AtomicInteger(likeCount == null ? 0 : likeCount);
+    }
+
+    public static FeedItem of(Post post) {
+        return new FeedItem(post.getId(), post.getUserId(), post.getTitle(), post.getCoverUrl(),
+                post.getImgWidth(), post.getImgHeight(), post.getLikeCount());
+    }
+
+    public int getLikeCount() {
+        return likeCount.get();
+    }
+
+    void addLikes(long delta) {
+        likeCount.addAndGet((int) delta);
+    }
+}
@@ -0,0 +1,167 @@
+package com.rednote.cache;
+
+import com.rednote.config.CacheProperties;
+import com.rednote.counter.LikeCountFlushedEvent;
+import com.rednote.entity.Post;
+import com.rednote.mapper.PostMapper;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 首页 Feed 内存时间线：最新 N 条帖子的摘要，按 ID 倒序
+ * 游标落在窗口内的翻页直接从内存返回，超出窗口时由调用方回退到数据库。
+ * 窗口是写时复制的有界数组 (发帖远少于刷 Feed)，读完全无锁；超出容量时丢弃最旧的一条。
+ */
+@Slf4j
+@Component
+public class FeedTimeline {
+
+    @Resource
+    private PostMapper postMapper;
+
+    @Resource
+    private CacheProperties cacheProperties;
+
+    // null 表示还没加载完成，此时全部走数据库
+    private volatile Window window;
+
+    // 写窗口的互斥锁 (不用 synchronized：重建时持锁查库，虚拟线程在 monitor 上等待会钉住载体线程)
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * 冷启动：一次流式查询拉取最新 N 条重建窗口
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        // 持锁查询：重建期间的发布会等重建完成后再入窗，不会漏掉
+        writeLock.lock();
+        try {
+            int capacity = cacheProperties.getFeedTimelineCapacity();
+            List<FeedItem> items = new ArrayList<>(capacity);
+            postMapper.selectTimelineWindow(capacity, context -> items.add(context.getResultObject()));
+            window = new Window(items.toArray(new FeedItem[0]), items.size() < capacity);
+            log.info("Feed timeline rebuilt with {} posts", items.size());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 取一页 (最多 size + 1 条，多出的一条用于判断 hasMore)
+     * 返回 null 表示窗口覆盖不了这一页，需要查库
+     */
+    public List<FeedItem> page(Long lastId, int size) {
+        Window current = window;
+        if (current == null) {
+            return null;
+        }
+        FeedItem[] items = current.items;
+        int from = lastId == null ? 0 : indexAfter(items, lastId);
+        int to = Math.min(items.length, from + size + 1);
+        if (to - from < size + 1 && !current.complete) {
+            return null;
+        }
+        return Arrays.asList(items).subList(from, to);
+    }
+
+    /**
+     * 新帖子入窗 (发布成功后调用)
+     */
+    public void append(Post post) {
+        writeLock.lock();
+        try {
+            Window current = window;
+            if (current == null) {
+                return;
+            }
+            int capacity = cacheProperties.getFeedTimelineCapacity();
+            FeedItem[] items = current.items;
+            // 并发发布时提交顺序不一定等于 ID 顺序，按 ID 找到插入位置
+            int pos = indexAfter(items, post.getId() + 1);
+            if (pos < items.length && items[pos].getId().equals(post.getId())) {
+                return;
+            }
+            int length = Math.min(capacity, items.length + 1);
+            if (pos >= length) {
+                return;
+            }
+            FeedItem[] next = new FeedItem[length];
+            System.arraycopy(items, 0, next, 0, pos);
+            next[pos] = FeedItem.of(post);
+            System.arraycopy(items, pos, next, pos + 1, length - pos - 1);
+            window = new Window(next, current.complete && items.length < capacity);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 帖子被编辑后替换窗口中的摘要
+     */
+    public void replace(Post post) {
+        writeLock.lock();
+        try {
+            Window current = window;
+            if (current == null || post == null) {
+                return;
+            }
+            FeedItem[] items = current.items;
+            int pos = indexAfter(items, post.getId() + 1);
+            if (pos < items.length && items[pos].getId().equals(post.getId())) {
+                FeedItem[] next = items.clone();
+                next[pos] = FeedItem.of(post);
+                window = new Window(next, current.complete);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 点赞增量落库后同步到窗口中的点赞数
+     */
+    @EventListener
+    public void onLikeCountFlushed(LikeCountFlushedEvent event) {
+        Window current = window;
+        if (current == null || event.getTarget() != LikeCountFlushedEvent.Target.POST) {
+            return;
+        }
+        event.getDeltas().forEach((postId, delta) -> {
+            int pos = indexAfter(current.items, postId + 1);
+            if (pos < current.items.length && current.items[pos].getId().equals(postId)) {
+                current.items[pos].addLikes(delta);
+            }
+        });
+    }
+
+    /**
+     * 第一个 ID 小于 lastId 的下标 (数组按 ID 倒序)
+     */
+    private static int indexAfter(FeedItem[] items, long lastId) {
+        int low = 0;
+        int high = items.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (items[mid].getId() >= lastId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * complete: 窗口里已经是全部帖子 (库里的帖子数不足容量)，窗口外不会再有数据
+     */
+    private record Window(FeedItem[] items, boolean complete) {
+    }
+}
@@ -0,0 +1,375 @@
+package com.rednote.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.rednote.config.CacheProperties;
+import com.rednote.counter.LikeCounterAggregator;
+import com.rednote.entity.Comment;
+import com.rednote.mapper.CommentMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 热门帖子的一级评论排行索引：按 (like_count DESC, id DESC) 排好序的跳表
+ * 评论区在 hot-window 内被请求超过阈值的帖子才加载 (一次覆盖索引扫描)，之后的翻页在跳表上 O(log n) 定位游标，
+ * 点赞 / 取消点赞 / 新评论增量调整位置；一段时间没人访问就淘汰，冷门帖子始终走数据库。
+ * 排名用的点赞数 = 库里的值 + 尚未写回的增量，与列表上展示的点赞数一致。
+ * 加载期间 (索引还没放进缓存) 到达的新评论和点赞先记下来，加载完成后补上
+ */
+@Slf4j
+@Component
+public class HotCommentIndex {
+
+    @Resource
+    private CommentMapper commentMapper;
+
+    @Resource
+    private LikeCounterAggregator likeCounterAggregator;
+
+    @Resource
+    private CacheProperties cacheProperties;
+
+    // key: 帖子ID
+    private Cache<Long, Ranking> rankings;
+
+    // 还没建索引的帖子在当前窗口内被请求的次数
+    private Cache<Long, LongAdder> requestCounts;
+
+    // 已建索引的评论 -> 所在的排行 (点赞时只知道评论ID)
+    // 记的是排行实例而不是帖子ID：同一帖子淘汰后重新加载，旧实例的清理不会误删新实例的映射
+    private final ConcurrentHashMap<Long, Ranking> rankingOfComment = new ConcurrentHashMap<>();
+
+    // 正在加载的帖子 -> 加载期间到达的事件
+    private final ConcurrentHashMap<Long, PendingEvents> loading = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        CacheProperties.HotComments spec = cacheProperties.getHotComments();
+        rankings = Caffeine.newBuilder()
+                .maximumWeight(spec.getMaxEntries())
+                .<Long, Ranking>weigher((postId, ranking) -> Math.max(1, ranking.size()))
+                .expireAfter(new RankingExpiry(spec.getIdleTtl(), spec.getMaxAge()))
+                .removalListener((Long postId, Ranking ranking, RemovalCause cause) -> {
+                    // REPLACED 只来自新评论后的重新放入 (同一个实例)，映射仍然有效
+                    if (ranking != null && cause != RemovalCause.REPLACED) {
+                        ranking.likes.keySet().forEach(commentId -> rankingOfComment.remove(commentId, ranking));
+                    }
+                })
+                .recordStats()
+                .build();
+        requestCounts = Caffeine.newBuilder()
+                .maximumSize(100000)
+                .expireAfterWrite(spec.getHotWindow())
+                .build();
+    }
+
+    /**
+     * 从游标之后取最多 limit 条 (游标为 null 时从第一名开始)
+     * 返回 null 表示这个帖子没有索引 (还不够热或功能关闭)，调用方走数据库
+     */
+    public List<Ranked> page(Long postId, Integer lastLikeCount, Long lastId, int limit) {
+        if (!cacheProperties.getHotComments().isEnabled()) {
+            return null;
+        }
+        Ranking ranking = rankings.getIfPresent(postId);
+        if (ranking == null) {
+            if (!countRequest(postId)) {
+                return null;
+            }
+            try {
+                ranking = rankings.get(postId, this::load);
+            } catch (RuntimeException e) {
+                loading.remove(postId);
+                throw e;
+            }
+            // 索引已放进缓存，之后的事件能直接找到它；补上加载期间记下的事件 (并发等待的请求只有一个会执行)
+            if (ranking.pending.close()) {
+                loading.remove(postId, ranking.pending);
+                replay(postId, ranking);
+            }
+            requestCounts.invalidate(postId);
+        }
+
+        NavigableSet<Ranked> tail = lastLikeCount == null || lastId == null
+                ? ranking.order
+                : ranking.order.tailSet(new Ranked(lastLikeCount, lastId), false);
+        List<Ranked> page = new ArrayList<>(limit);
+        // 点赞调整位置时先插入新位置再删除旧位置，并发读可能短暂看到同一条两次
+        Set<Long> seen = new HashSet<>();
+        for (Ranked ranked : tail) {
+            if (page.size() >= limit) {
+                break;
+            }
+            if (seen.add(ranked.id())) {
+                page.add(ranked);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * 点赞 / 取消点赞 (在事务中调用时等提交后再调整，回滚则不动)
+     */
+    public void onLike(Long commentId, long delta) {
+        afterCommit(() -> {
+            Ranking ranking = rankingOfComment.get(commentId);
+            if (ranking != null) {
+                // 还在加载中的排行不按增量调整 (加载时可能已经读到了这次点赞)，记下来加载完重新读
+                if (!ranking.pending.offerLike(commentId)) {
+                    ranking.adjust(commentId, delta);
+                }
+                return;
+            }
+            // 不知道评论属于哪个帖子：正在加载的帖子都记一下，加载完成后只处理确实属于它的
+            loading.values().forEach(pending -> pending.offerLike(commentId));
+        });
+    }
+
+    /**
+     * 新的一级评论 (评论已提交后调用)
+     */
+    public void onComment(Long postId, Long commentId) {
+        Ranking ranking = rankings.getIfPresent(postId);
+        if (ranking == null) {
+            PendingEvents pending = loading.get(postId);
+            if (pending != null && pending.offerComment(commentId)) {
+                return;
+            }
+            // 没在加载，或者加载刚结束 (索引已经放进缓存)
+            ranking = rankings.getIfPresent(postId);
+        }
+        if (ranking != null) {
+            addComment(postId, ranking, commentId, 0);
+        }
+    }
+
+    public Cache<Long, Ranking> getRankings() {
+        return rankings;
+    }
+
+    private boolean countRequest(Long postId) {
+        LongAdder counter = requestCounts.get(postId, k -> new LongAdder());
+        counter.increment();
+        return counter.sum() >= cacheProperties.getHotComments().getHotThreshold();
+    }
+
+    /**
+     * 只读 (id, like_count)，整段走 idx_post_root_like 覆盖索引
+     * 查库之前登记 loading，查库之后提交的评论和点赞都会被记下
+     */
+    private Ranking load(Long postId) {
+        PendingEvents pending = new PendingEvents();
+        loading.put(postId, pending);
+        List<Comment> roots = commentMapper.selectList(new LambdaQueryWrapper<Comment>()
+                .select(Comment::getId, Comment::getLikeCount)
+                .eq(Comment::getPostId, postId)
+                .isNull(Comment::getRootParentId));
+        Ranking ranking = new Ranking(pending);
+        for (Comment root : roots) {
+            ranking.add(root.getId(),
+                    likeCounterAggregator.overlayCommentLikeCount(root.getId(), root.getLikeCount()));
+            rankingOfComment.put(root.getId(), ranking);
+        }
+        log.info("Hot comment index loaded for post {}, {} root comments", postId, roots.size());
+        return ranking;
+    }
+
+    /**
+     * 补上加载期间的事件
+     * 新评论重复添加是无害的；点赞不按增量重放 (加载时可能已经读到了)，而是对涉及的评论重新读一次点赞数
+     */
+    private void replay(Long postId, Ranking ranking) {
+        PendingEvents pending = ranking.pending;
+        for (Long commentId : pending.comments) {
+            addComment(postId, ranking, commentId, 0);
+        }
+        List<Long> liked = pending.likes.stream().filter(ranking.likes::containsKey).toList();
+        if (liked.isEmpty()) {
+            return;
+        }
+        List<Comment> current = commentMapper.selectList(new LambdaQueryWrapper<Comment>()
+                .select(Comment::getId, Comment::getLikeCount)
+                .in(Comment::getId, liked));
+        for (Comment comment : current) {
+            ranking.set(comment.getId(),
+                    likeCounterAggregator.overlayCommentLikeCount(comment.getId(), comment.getLikeCount()));
+        }
+    }
+
+    private void addComment(Long postId, Ranking ranking, long commentId, long likeCount) {
+        if (ranking.add(commentId, likeCount)) {
+            rankingOfComment.put(commentId, ranking);
+            // 权重只在放入时计算，重新放入一次让容量按新的评论数计；只替换同一个实例，已被淘汰的不会复活
+            rankings.asMap().replace(postId, ranking, ranking);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * 排行中的一项，自然顺序即列表顺序：点赞数倒序，相同时 ID 倒序
+     */
+    public record Ranked(long likeCount, long id) implements Comparable<Ranked> {
+
+        private static final Comparator<Ranked> ORDER = Comparator.comparingLong(Ranked::likeCount)
+                .thenComparingLong(Ranked::id)
+                .reversed();
+
+        @Override
+        public int compareTo(Ranked other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    /**
+     * 加载期间到达的事件，加载完成后关闭，之后的事件直接作用在缓存里的索引上
+     */
+    private static final class PendingEvents {
+
+        private final Set<Long> comments = new HashSet<>();
+
+        private final Set<Long> likes = new HashSet<>();
+
+        private boolean closed;
+
+        synchronized boolean offerComment(Long commentId) {
+            if (closed) {
+                return false;
+            }
+            comments.add(commentId);
+            return true;
+        }
+
+        synchronized boolean offerLike(Long commentId) {
+            if (closed) {
+                return false;
+            }
+            likes.add(commentId);
+            return true;
+        }
+
+        /**
+         * 关闭后不再接收事件；只有第一次调用返回 true
+         */
+        synchronized boolean close() {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            return true;
+        }
+    }
+
+    /**
+     * 空闲 idle-ttl 没有访问就过期，并且从加载起最长保留 max-age (限制与库里的偏差)
+     * 新评论后的重新放入不算写入，不会延长 max-age
+     */
+    private static final class RankingExpiry implements Expiry<Long, Ranking> {
+
+        private final long idleNanos;
+
+        private final long maxAgeNanos;
+
+        RankingExpiry(Duration idleTtl, Duration maxAge) {
+            this.idleNanos = idleTtl.toNanos();
+            this.maxAgeNanos = maxAge.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(Long postId, Ranking ranking, long currentTime) {
+            return remaining(ranking, currentTime);
+        }
+
+        @Override
+        public long expireAfterUpdate(Long postId, Ranking ranking, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(Long postId, Ranking ranking, long currentTime, long currentDuration) {
+            return remaining(ranking, currentTime);
+        }
+
+        private long remaining(Ranking ranking, long currentTime) {
+            return Math.max(0, Math.min(idleNanos, maxAgeNanos - (currentTime - ranking.loadedAt)));
+        }
+    }
+
+    /**
+     * 一个帖子的排行：跳表负责顺序，likes 记录每条评论当前的排名点赞数
+     * 同一条评论的调整在 likes.compute 里串行，不同评论之间互不阻塞，读完全无锁
+     */
+    public static final class Ranking {
+
+        private final ConcurrentSkipListSet<Ranked> order = new ConcurrentSkipListSet<>();
+
+        private final ConcurrentHashMap<Long, Long> likes = new ConcurrentHashMap<>();
+
+        // 与 Caffeine 默认的 Ticker 同一个时钟
+        private final long loadedAt = System.nanoTime();
+
+        // 加载期间到达的事件，放进缓存并补完之后关闭
+        private final PendingEvents pending;
+
+        Ranking(PendingEvents pending) {
+            this.pending = pending;
+        }
+
+        boolean add(long commentId, long likeCount) {
+            if (likes.putIfAbsent(commentId, likeCount) != null) {
+                return false;
+            }
+            order.add(new Ranked(likeCount, commentId));
+            return true;
+        }
+
+        void adjust(long commentId, long delta) {
+            likes.computeIfPresent(commentId, (id, old) -> move(id, old, Math.max(0, old + delta)));
+        }
+
+        void set(long commentId, long likeCount) {
+            likes.computeIfPresent(commentId, (id, old) -> move(id, old, Math.max(0, likeCount)));
+        }
+
+        private long move(long id, long old, long next) {
+            if (next != old) {
+                order.add(new Ranked(next, id));
+                order.remove(new Ranked(old, id));
+            }
+            return next;
+        }
+
+        public int size() {
+            return likes.size();
+        }
+    }
+}
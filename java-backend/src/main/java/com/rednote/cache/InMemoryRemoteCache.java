@@ -0,0 +1,38 @@
+package com.rednote.cache;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 二级缓存的本地替身：语义与 Redis 的 GET/SETEX/DEL 一致，用于测试和无 Redis 的环境
+ */
+public class InMemoryRemoteCache implements RemoteCache {
+
+    private final ConcurrentHashMap<String, Entry> store = new ConcurrentHashMap<>();
+
+    @Override
+    public String get(String key) {
+        Entry entry = store.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expireAtNanos - System.nanoTime() <= 0) {
+            store.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    @Override
+    public void set(String key, String value, Duration ttl) {
+        store.put(key, new Entry(value, System.nanoTime() + ttl.toNanos()));
+    }
+
+    @Override
+    public void delete(String key) {
+        store.remove(key);
+    }
+
+    private record Entry(String value, long expireAtNanos) {
+    }
+}
@@ -0,0 +1,196 @@
+package com.rednote.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rednote.config.CacheProperties;
+import com.rednote.counter.LikeCountFlushedEvent;
+import com.rednote.entity.vo.PostDetailVO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 帖子详情读穿缓存
+ * 一级：进程内 Caffeine (LRU + TTL)；二级：可选的 RemoteCache (Redis)。
+ * 只缓存与用户无关的部分 (标题、正文、图片、作者、计数)，isLiked 由调用方按当前用户单独叠加。
+ */
+@Slf4j
+@Component
+public class PostDetailCache {
+
+    private static final String REMOTE_KEY_PREFIX = "rednote:post:detail:";
+
+    // 失效代数的分段数 (按帖子ID取模，不同帖子偶尔共用一段只会多跳过几次二级缓存回写)
+    private static final int GENERATION_STRIPES = 1024;
+
+    @Resource
+    private CacheProperties cacheProperties;
+
+    @Resource
+    private RemoteCache remoteCache;
+
+    @Resource
+    private ObjectMapper objectMapper;
+
+    private Cache<Long, PostDetailVO> localCache;
+
+    private final LongAdder remoteHits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    // 每次失效加一；回源前后比较，期间被失效过的结果不写二级缓存
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    @PostConstruct
+    public void init() {
+        CacheProperties.Spec spec = cacheProperties.getPostDetail();
+        localCache = Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .expireAfterWrite(spec.getLocalTtl())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 读穿：本地 -> 二级 -> loader (查库)，返回的是副本，调用方可以放心修改
+     * 回源在 Caffeine 的 compute 里执行：同一帖子并发未命中只查一次库，
+     * 并且 invalidate 会等回源结束再移除，旧值不会在失效之后被放回本地缓存
+     */
+    public PostDetailVO get(Long postId, Function<Long, PostDetailVO> loader) {
+        PostDetailVO cached = localCache.get(postId, id -> loadThrough(id, loader));
+        return cached == null ? null : copyOf(cached);
+    }
+
+    /**
+     * 清掉两级缓存；在事务中调用时提交后再清一次，
+     * 否则失效和提交之间回源的请求会读到提交前的旧数据并重新缓存一整个 TTL
+     */
+    public void invalidate(Long postId) {
+        evict(postId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(postId);
+                }
+            });
+        }
+    }
+
+    private void evict(Long postId) {
+        // 先加代数再删：回写二级缓存之后的复查一定能看到这次失效
+        generations.incrementAndGet(stripe(postId));
+        localCache.invalidate(postId);
+        deleteRemote(postId);
+    }
+
+    private PostDetailVO loadThrough(Long postId, Function<Long, PostDetailVO> loader) {
+        PostDetailVO remote = readRemote(postId);
+        if (remote != null) {
+            remoteHits.increment();
+            return remote;
+        }
+        misses.increment();
+        long generation = generations.get(stripe(postId));
+        PostDetailVO loaded = loader.apply(postId);
+        if (loaded == null) {
+            return null;
+        }
+        PostDetailVO cached = copyOf(loaded);
+        cached.setIsLiked(null);
+        if (generations.get(stripe(postId)) == generation) {
+            writeRemote(postId, cached);
+            // 检查和写入之间又被失效了：删掉刚写进去的旧值
+            if (generations.get(stripe(postId)) != generation) {
+                deleteRemote(postId);
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * 点赞增量落库后，库里的 like_count 变了，缓存的基准值随之失效
+     */
+    @EventListener
+    public void onLikeCountFlushed(LikeCountFlushedEvent event) {
+        if (event.getTarget() == LikeCountFlushedEvent.Target.POST) {
+            event.getDeltas().keySet().forEach(this::invalidate);
+        }
+    }
+
+    public long localHitCount() {
+        return localCache.stats().hitCount();
+    }
+
+    public long remoteHitCount() {
+        return remoteHits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public Cache<Long, PostDetailVO> getLocalCache() {
+        return localCache;
+    }
+
+    private PostDetailVO readRemote(Long postId) {
+        try {
+            String json = remoteCache.get(REMOTE_KEY_PREFIX + postId);
+            return json == null ? null : objectMapper.readValue(json, PostDetailVO.class);
+        } catch (Exception e) {
+            // 二级缓存不可用时直接回源，不影响主流程
+            log.warn("Read post detail {} from remote cache failed", postId, e);
+            return null;
+        }
+    }
+
+    private void deleteRemote(Long postId) {
+        try {
+            remoteCache.delete(REMOTE_KEY_PREFIX + postId);
+        } catch (Exception e) {
+            log.warn("Evict post detail {} from remote cache failed", postId, e);
+        }
+    }
+
+    private static int stripe(Long postId) {
+        return Long.hashCode(postId) & (GENERATION_STRIPES - 1);
+    }
+
+    private void writeRemote(Long postId, PostDetailVO detail) {
+        try {
+            remoteCache.set(REMOTE_KEY_PREFIX + postId, objectMapper.writeValueAsString(detail),
+                    cacheProperties.getPostDetail().getRemoteTtl());
+        } catch (Exception e) {
+            log.warn("Write post detail {} to remote cache failed", postId, e);
+        }
+    }
+
+    private static PostDetailVO copyOf(PostDetailVO source) {
+        PostDetailVO copy = new PostDetailVO();
+        copy.setId(source.getId());
+        copy.setTitle(source.getTitle());
+        copy.setContent(source.getContent());
+        copy.setImages(source.getImages());
+        copy.setImageRenditions(source.getImageRenditions());
+        copy.setImgWidth(source.getImgWidth());
+        copy.setImgHeight(source.getImgHeight());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setAuthorId(source.getAuthorId());
+        copy.setAuthorName(source.getAuthorName());
+        copy.setAuthorAvatar(source.getAuthorAvatar());
+        copy.setLikeCount(source.getLikeCount());
+        copy.setCommentCount(source.getCommentCount());
+        copy.setIsLiked(source.getIsLiked());
+        return copy;
+    }
+}
@@ -0,0 +1,31 @@
+package com.rednote.cache;
+
+import java.time.Duration;
+
+/**
+ * 二级缓存 (进程外) 的最小抽象
+ * 生产环境可接 Redis，测试/单机用本地替身，不需要二级缓存时用 NONE
+ */
+public interface RemoteCache {
+
+    String get(String key);
+
+    void set(String key, String value, Duration ttl);
+
+    void delete(String key);
+
+    RemoteCache NONE = new RemoteCache() {
+        @Override
+        public String get(String key) {
+            return null;
+        }
+
+        @Override
+        public void set(String key, String value, Duration ttl) {
+        }
+
+        @Override
+        public void delete(String key) {
+        }
+    };
+}
@@ -0,0 +1,7 @@
+package com.rednote.cache;
+
+/**
+ * 列表展示用的用户摘要 (昵称 + 头像)，不可变，可以在缓存中安全共享
+ */
+public record UserSummary(Long id, String nickname, String avatarUrl) {
+}
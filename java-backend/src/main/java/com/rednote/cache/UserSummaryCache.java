@@ -0,0 +1,87 @@
+package com.rednote.cache;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.rednote.config.CacheProperties;
+import com.rednote.entity.User;
+import com.rednote.mapper.UserMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 用户摘要缓存 (按用户ID)
+ * Feed、回复列表、新评论填充昵称头像都走这里，热门作者全部命中内存；
+ * getAll 的未命中部分合并成一次 selectBatchIds 回源
+ */
+@Component
+public class UserSummaryCache {
+
+    @Resource
+    private UserMapper userMapper;
+
+    @Resource
+    private CacheProperties cacheProperties;
+
+    private LoadingCache<Long, UserSummary> cache;
+
+    @PostConstruct
+    public void init() {
+        CacheProperties.Spec spec = cacheProperties.getUserSummary();
+        cache = Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .expireAfterWrite(spec.getLocalTtl())
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public UserSummary load(Long id) {
+                        User user = userMapper.selectById(id);
+                        return user == null ? null : toSummary(user);
+                    }
+
+                    @Override
+                    public Map<Long, UserSummary> loadAll(Set<? extends Long> ids) {
+                        Map<Long, UserSummary> loaded = new HashMap<>();
+                        for (User user : userMapper.selectBatchIds(ids)) {
+                            loaded.put(user.getId(), toSummary(user));
+                        }
+                        return loaded;
+                    }
+                });
+    }
+
+    public UserSummary get(Long userId) {
+        return userId == null ? null : cache.get(userId);
+    }
+
+    /**
+     * 批量获取，不存在的用户不会出现在结果里
+     */
+    public Map<Long, UserSummary> getAll(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return cache.getAll(userIds);
+    }
+
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            cache.invalidate(userId);
+        }
+    }
+
+    public LoadingCache<Long, UserSummary> getCache() {
+        return cache;
+    }
+
+    private static UserSummary toSummary(User user) {
+        return new UserSummary(user.getId(), user.getNickname(), user.getAvatarUrl());
+    }
+}
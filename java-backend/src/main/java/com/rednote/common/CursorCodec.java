@@ -0,0 +1,191 @@
+package com.rednote.common;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * 键集分页游标的编解码，所有列表接口共用
+ * 格式：版本(1 字节) + 类型(1 字节) + 各排序列的值 (ZigZag 变长整数) + HMAC-SHA256 截断的 8 字节校验，
+ * 整体 base64url 编码 (无填充)。
+ * 客户端只能原样回传；被改过、拼错或者拿别的列表的游标来用，一律解码失败
+ */
+@Component
+public class CursorCodec {
+
+    private static final byte VERSION = 1;
+
+    private static final int TAG_LENGTH = 8;
+
+    // 一个 long 的变长编码最多 10 字节
+    private static final int MAX_VARINT_LENGTH = 10;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * 游标类型及其排序列数，不同列表的游标不能互相冒用
+     */
+    public enum Kind {
+        // 首页 Feed：id DESC
+        POST_FEED(1, 1),
+        // 一级评论：like_count DESC, id DESC
+        COMMENT_FEED(2, 2),
+        // 楼中楼回复：created_at ASC, id ASC
+        REPLY(3, 2);
+
+        private final byte code;
+
+        private final int keyCount;
+
+        Kind(int code, int keyCount) {
+            this.code = (byte) code;
+            this.keyCount = keyCount;
+        }
+    }
+
+    // Mac 不是线程安全的，每次从初始化好的原型克隆一份 (比 getInstance + init 便宜得多)
+    private final Mac prototype;
+
+    public CursorCodec(@Value("${rednote.cursor.secret:${jwt.secret}}") String secret) {
+        try {
+            prototype = Mac.getInstance("HmacSHA256");
+            prototype.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 不可用", e);
+        }
+    }
+
+    /**
+     * 编码游标，keys 按排序列的顺序传入
+     */
+    public String encode(Kind kind, long... keys) {
+        if (keys.length != kind.keyCount) {
+            throw new IllegalArgumentException(kind + " 需要 " + kind.keyCount + " 个排序列");
+        }
+        byte[] buf = new byte[2 + keys.length * MAX_VARINT_LENGTH + TAG_LENGTH];
+        buf[0] = VERSION;
+        buf[1] = kind.code;
+        int pos = 2;
+        for (long key : keys) {
+            // ZigZag：小的负数也只占 1 个字节
+            long v = (key << 1) ^ (key >> 63);
+            while ((v & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[pos++] = (byte) v;
+        }
+        System.arraycopy(tag(buf, pos), 0, buf, pos, TAG_LENGTH);
+        return ENCODER.encodeToString(Arrays.copyOf(buf, pos + TAG_LENGTH));
+    }
+
+    /**
+     * 解码游标
+     * 为空时返回 null (第一页)；格式、类型或校验不对时抛异常，不会退化成全表扫描
+     */
+    public long[] decode(Kind kind, String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        long[] keys = tryDecode(kind, cursor);
+        if (keys == null) {
+            throw new RuntimeException("游标无效");
+        }
+        return keys;
+    }
+
+    private long[] tryDecode(Kind kind, String cursor) {
+        // 最长的游标也就几十个字符，超长的直接拒绝
+        if (cursor.length() > 64) {
+            return null;
+        }
+        byte[] buf;
+        try {
+            buf = DECODER.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        int body = buf.length - TAG_LENGTH;
+        if (body < 2 + kind.keyCount || buf[0] != VERSION || buf[1] != kind.code) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(tag(buf, body), Arrays.copyOfRange(buf, body, buf.length))) {
+            return null;
+        }
+        long[] keys = new long[kind.keyCount];
+        int pos = 2;
+        for (int i = 0; i < keys.length; i++) {
+            long v = 0;
+            int shift = 0;
+            while (true) {
+                if (pos >= body || shift >= 64) {
+                    return null;
+                }
+                byte b = buf[pos++];
+                v |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    break;
+                }
+                shift += 7;
+            }
+            keys[i] = (v >>> 1) ^ -(v & 1);
+        }
+        // 多出来的字节同样视为无效
+        return pos == body ? keys : null;
+    }
+
+    private byte[] tag(byte[] buf, int length) {
+        try {
+            Mac mac = (Mac) prototype.clone();
+            mac.update(buf, 0, length);
+            return Arrays.copyOf(mac.doFinal(), TAG_LENGTH);
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 键集分页的游标条件，给 QueryWrapper.apply 使用，参数走预编译占位符
+     * 例如 after(true, "like_count", "id") 得到
+     * ((like_count &lt; {0}) OR (like_count = {0} AND id &lt; {1}))；
+     * 各列排序方向必须一致。不用 (a, b) &lt; (?, ?) 的行值写法：前面还有等值条件时 MySQL 不会把它用作索引范围
+     */
+    public static String after(boolean descending, String... columns) {
+        String op = descending ? " < " : " > ";
+        StringBuilder sql = new StringBuilder("(");
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                sql.append(" OR ");
+            }
+            sql.append('(');
+            for (int j = 0; j < i; j++) {
+                sql.append(columns[j]).append(" = {").append(j).append("} AND ");
+            }
+            sql.append(columns[i]).append(op).append('{').append(i).append("})");
+        }
+        return sql.append(')').toString();
+    }
+
+    /**
+     * 时间列作为排序键时的编码 (DATETIME 没有时区，按 UTC 换算成毫秒)
+     */
+    public static long timeKey(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    public static LocalDateTime timeOf(long key) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(key), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,146 @@
+package com.rednote.common;
+
+import com.rednote.config.AssemblyProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 列表页组装的并行阶段
+ * 主查询拿到一页 ID 之后，用户信息、点赞状态等补充查询互不依赖，同时提交到有界线程池，
+ * 页面耗时接近最慢的一个阶段而不是各阶段之和。
+ * 每个阶段单独计时 (rednote.page.stage，tag: page / stage / outcome)。
+ * 阶段内的 SQL 带语句超时 (见 StageQueryTimeoutInterceptor)，超时由数据库取消查询、及时归还连接；
+ * 并行阶段整体还有一个从提交起算的等待上限 (rednote.assembly.stage-timeout)，请求线程不会无限等下去；
+ * 阶段失败或超时整页失败，不会把缺昵称、未点赞这样的错误数据当作成功返回
+ */
+@Slf4j
+@Component
+public class ParallelStages {
+
+    // 当前线程正在执行的阶段的 SQL 超时 (秒)，不在阶段内时为 null
+    private static final ThreadLocal<Integer> queryTimeoutHolder = new ThreadLocal<>();
+
+    @Resource
+    private ThreadPoolTaskExecutor assemblyExecutor;
+
+    @Resource
+    private AssemblyProperties assemblyProperties;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 在当前线程执行一个阶段 (后续阶段依赖它的结果，比如一页的主查询)，与并行阶段记在同一个指标下
+     */
+    public <T> T run(String page, String stage, Supplier<T> task) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            T result = withQueryTimeout(task);
+            outcome = "success";
+            return result;
+        } catch (RuntimeException e) {
+            outcome = outcomeOf(e);
+            throw e;
+        } finally {
+            sample.stop(timer(page, stage, outcome));
+        }
+    }
+
+    /**
+     * 提交一个阶段；任务需要的参数 (包括当前用户) 由调用方在请求线程上取好传进来
+     * 失败或超时时 future 异常结束，用 join 取结果；超过 stage-timeout 还没完成的以 TimeoutException 结束
+     */
+    public <T> CompletableFuture<T> fork(String page, String stage, Supplier<T> task) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return CompletableFuture.supplyAsync(() -> withQueryTimeout(task), assemblyExecutor)
+                .orTimeout(assemblyProperties.getStageTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> {
+                    String outcome = error == null ? "success" : outcomeOf(error);
+                    sample.stop(timer(page, stage, outcome));
+                    if (error != null) {
+                        log.warn("Stage {}/{} {}", page, stage, outcome, unwrap(error));
+                    }
+                });
+    }
+
+    /**
+     * 取阶段结果，失败时抛出阶段里的原始异常 (而不是 CompletionException)
+     * fork 出的 future 最迟在 stage-timeout 后结束，这里不会无限阻塞；等待超时同样整页失败
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            if (cause instanceof TimeoutException) {
+                throw new RuntimeException("页面加载超时", cause);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 供 StageQueryTimeoutInterceptor 读取
+     */
+    public static Integer currentQueryTimeout() {
+        return queryTimeoutHolder.get();
+    }
+
+    private <T> T withQueryTimeout(Supplier<T> task) {
+        Integer previous = queryTimeoutHolder.get();
+        // JDBC 的语句超时以秒为单位，向上取整
+        long millis = assemblyProperties.getQueryTimeout().toMillis();
+        queryTimeoutHolder.set((int) Math.max(1, (millis + 999) / 1000));
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                queryTimeoutHolder.remove();
+            } else {
+                queryTimeoutHolder.set(previous);
+            }
+        }
+    }
+
+    private static String outcomeOf(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof SQLTimeoutException || t instanceof QueryTimeoutException
+                    || t instanceof TimeoutException) {
+                return "timeout";
+            }
+        }
+        return "failure";
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private Timer timer(String page, String stage, String outcome) {
+        return Timer.builder("rednote.page.stage")
+                .description("Time spent in one stage of list page assembly, including queueing")
+                .tag("page", page)
+                .tag("stage", stage)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
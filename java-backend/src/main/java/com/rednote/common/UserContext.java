@@ -1,5 +1,14 @@
 package com.rednote.common;
 
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * 当前请求的登录用户
+ * 由 LoginInterceptor 在请求开始时设置、结束时清理；每个请求 (平台线程或虚拟线程) 各自独立。
+ * 任务交给其他线程执行时不会自动带过去，需要用 wrap 捕获后在目标线程恢复，
+ * 线程池统一通过 TaskDecorator 处理 (见 ExecutorConfig)
+ */
 public class UserContext {
     private static final ThreadLocal<Long> userHolder = new ThreadLocal<>();
 
@@ -14,4 +23,62 @@ public class UserContext {
     public static void clear() {
         userHolder.remove(); // 防止内存泄漏，必须清理
     }
-}
\ No newline at end of file
+
+    /**
+     * 以指定用户执行任务，结束后恢复原来的值 (写法与 ScopedValue.where(...).run(...) 相同，便于以后替换)
+     */
+    public static void runWith(Long userId, Runnable task) {
+        Long previous = userHolder.get();
+        userHolder.set(userId);
+        try {
+            task.run();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * 以指定用户执行任务并返回结果，结束后恢复原来的值
+     */
+    public static <T> T callWith(Long userId, Callable<T> task) throws Exception {
+        Long previous = userHolder.get();
+        userHolder.set(userId);
+        try {
+            return task.call();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * 捕获当前线程的用户，返回在任意线程执行时都带着该用户的任务
+     */
+    public static Runnable wrap(Runnable task) {
+        Long userId = getUserId();
+        return () -> runWith(userId, task);
+    }
+
+    /**
+     * 同上，用于 CompletableFuture.supplyAsync 等有返回值的场景
+     */
+    public static <T> Supplier<T> wrap(Supplier<T> task) {
+        Long userId = getUserId();
+        return () -> {
+            Long previous = userHolder.get();
+            userHolder.set(userId);
+            try {
+                return task.get();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    private static void restore(Long previous) {
+        if (previous == null) {
+            userHolder.remove();
+        } else {
+            userHolder.set(previous);
+        }
+    }
+}
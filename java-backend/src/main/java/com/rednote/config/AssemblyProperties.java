@@ -0,0 +1,21 @@
+package com.rednote.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "rednote.assembly")
+public class AssemblyProperties {
+    // 列表页并行补充查询 (用户信息、点赞状态) 的线程数；每个阶段各占一个数据库连接，要比 Druid max-active 小
+    private int workers = 8;
+    // 排队上限，超出时由请求线程自己执行
+    private int queueCapacity = 200;
+    // 阶段内每条 SQL 的语句超时 (JDBC 以秒为单位，向上取整)，超时由数据库取消查询并归还连接，整页请求失败
+    private Duration queryTimeout = Duration.ofSeconds(1);
+    // 单个阶段从提交起 (含排队) 的最长等待时间，兜住 SQL 以外的耗时 (缓存、线程池排队)；超时整页请求失败
+    private Duration stageTimeout = Duration.ofSeconds(3);
+}
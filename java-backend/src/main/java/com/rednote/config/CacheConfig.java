@@ -0,0 +1,26 @@
+package com.rednote.config;
+
+import com.rednote.cache.InMemoryRemoteCache;
+import com.rednote.cache.RedisRemoteCache;
+import com.rednote.cache.RemoteCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@Configuration
+public class CacheConfig {
+
+    /**
+     * 根据 rednote.cache.remote 选择二级缓存实现
+     */
+    @Bean
+    public RemoteCache remoteCache(CacheProperties cacheProperties,
+                                   ObjectProvider<StringRedisTemplate> redisTemplate) {
+        return switch (cacheProperties.getRemote()) {
+            case "redis" -> new RedisRemoteCache(redisTemplate.getObject());
+            case "local" -> new InMemoryRemoteCache();
+            default -> RemoteCache.NONE;
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package com.rednote.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "rednote.cache")
+public class CacheProperties {
+    // 二级缓存：none (只用进程内缓存) / local (本地替身) / redis
+    private String remote = "none";
+
+    // 帖子详情缓存
+    private Spec postDetail = new Spec(10000, Duration.ofSeconds(30), Duration.ofMinutes(10));
+
+    // 用户摘要 (昵称/头像) 缓存，只用进程内
+    private Spec userSummary = new Spec(50000, Duration.ofMinutes(10), null);
+
+    // 首页 Feed 内存时间线保留的最新帖子数
+    private int feedTimelineCapacity = 1000;
+
+    // 热门帖子的一级评论排行索引
+    private HotComments hotComments = new HotComments();
+
+    @Data
+    public static class HotComments {
+        private boolean enabled = true;
+        // hot-window 内评论区被请求多少次算热门帖子，达到后才建索引
+        private int hotThreshold = 20;
+        private Duration hotWindow = Duration.ofMinutes(1);
+        // 所有帖子的索引合计最多容纳的评论条数
+        private long maxEntries = 500000;
+        // 多久没人访问就淘汰 (帖子降温)
+        private Duration idleTtl = Duration.ofMinutes(5);
+        // 索引最长存活时间，到期后重新加载，纠正增量维护中可能出现的偏差
+        private Duration maxAge = Duration.ofMinutes(30);
+    }
+
+    @Data
+    public static class Spec {
+        // 进程内最多缓存条数
+        private long maximumSize;
+        // 进程内缓存写入后多久过期
+        private Duration localTtl;
+        // 二级缓存过期时间
+        private Duration remoteTtl;
+
+        public Spec() {
+        }
+
+        public Spec(long maximumSize, Duration localTtl, Duration remoteTtl) {
+            this.maximumSize = maximumSize;
+            this.localTtl = localTtl;
+            this.remoteTtl = remoteTtl;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.rednote.config;
+
+import com.rednote.common.UserContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    // 与 Web 层共用一个开关：开启后 Tomcat、@Scheduled 和这里的线程池都使用虚拟线程
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /**
+     * 异步发布帖子的后台线程池
+     * 有界队列，停机时等排队的发布任务执行完，避免帖子卡在"处理中"；
+     * 提交任务时带上当前登录用户
+     */
+    @Bean
+    public ThreadPoolTaskExecutor publishExecutor(PublishProperties publishProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(publishProperties.getWorkers());
+        executor.setMaxPoolSize(publishProperties.getWorkers());
+        executor.setQueueCapacity(publishProperties.getQueueCapacity());
+        executor.setThreadNamePrefix("publish-");
+        executor.setVirtualThreads(virtualThreads);
+        executor.setTaskDecorator(UserContext::wrap);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+
+    /**
+     * 列表页组装时并行执行补充查询的线程池 (见 ParallelStages)
+     * 有界队列，满了由请求线程自己执行，只会变慢不会报错。
+     * 不带 TaskDecorator：阶段需要的当前用户由调用方显式传入，工作线程上不依赖 UserContext
+     */
+    @Bean
+    public ThreadPoolTaskExecutor assemblyExecutor(AssemblyProperties assemblyProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(assemblyProperties.getWorkers());
+        executor.setMaxPoolSize(assemblyProperties.getWorkers());
+        executor.setQueueCapacity(assemblyProperties.getQueueCapacity());
+        executor.setThreadNamePrefix("assembly-");
+        executor.setVirtualThreads(virtualThreads);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+}
@@ -0,0 +1,15 @@
+package com.rednote.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "rednote.like-counter")
+public class LikeCounterProperties {
+    // 点赞增量写回数据库的间隔 (毫秒)，@Scheduled 直接读取同名配置
+    private long flushIntervalMs = 1000;
+    // 每条批量 UPDATE 最多包含的行数
+    private int batchSize = 500;
+}
@@ -0,0 +1,87 @@
+package com.rednote.config;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.rednote.cache.HotCommentIndex;
+import com.rednote.cache.PostDetailCache;
+import com.rednote.cache.UserSummaryCache;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.ToDoubleFunction;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * 支持在 Service 方法上使用 @Timed
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    /**
+     * Druid 连接池水位：活跃连接数接近 max-active、等待线程数大于 0 说明连接池已经打满
+     */
+    @Bean
+    public MeterBinder druidPoolMetrics(DruidDataSource dataSource) {
+        return registry -> {
+            druidGauge(registry, dataSource, "druid.connections.active", "Connections in use",
+                    DruidDataSource::getActiveCount);
+            druidGauge(registry, dataSource, "druid.connections.idle", "Idle connections in the pool",
+                    DruidDataSource::getPoolingCount);
+            druidGauge(registry, dataSource, "druid.connections.max", "Configured max-active",
+                    DruidDataSource::getMaxActive);
+            druidGauge(registry, dataSource, "druid.connections.pending", "Threads waiting for a connection",
+                    DruidDataSource::getWaitThreadCount);
+            druidGauge(registry, dataSource, "druid.connections.wait.total", "Times a borrow had to wait",
+                    DruidDataSource::getNotEmptyWaitCount);
+        };
+    }
+
+    /**
+     * 帖子详情 / 用户摘要 / 热门评论排行索引的进程内缓存命中率 (都已开启 recordStats)
+     */
+    @Bean
+    public MeterBinder localCacheMetrics(PostDetailCache postDetailCache, UserSummaryCache userSummaryCache,
+            HotCommentIndex hotCommentIndex) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, postDetailCache.getLocalCache(), "postDetail");
+            CaffeineCacheMetrics.monitor(registry, userSummaryCache.getCache(), "userSummary");
+            CaffeineCacheMetrics.monitor(registry, hotCommentIndex.getRankings(), "hotComments");
+        };
+    }
+
+    /**
+     * 帖子详情本地未命中之后的去向：命中二级缓存 / 回源查库
+     */
+    @Bean
+    public MeterBinder postDetailTierMetrics(PostDetailCache postDetailCache) {
+        return registry -> {
+            FunctionCounter.builder("rednote.cache.post-detail.lookups", postDetailCache,
+                            PostDetailCache::remoteHitCount)
+                    .description("Local misses served by the remote cache")
+                    .tag("result", "remote_hit")
+                    .register(registry);
+            FunctionCounter.builder("rednote.cache.post-detail.lookups", postDetailCache,
+                            PostDetailCache::missCount)
+                    .description("Local misses that went to the database")
+                    .tag("result", "miss")
+                    .register(registry);
+        };
+    }
+
+    private static void druidGauge(MeterRegistry registry, DruidDataSource dataSource, String name,
+                                   String description, ToDoubleFunction<DruidDataSource> value) {
+        Gauge.builder(name, dataSource, value)
+                .description(description)
+                .tag("pool", dataSource.getName())
+                .register(registry);
+    }
+}
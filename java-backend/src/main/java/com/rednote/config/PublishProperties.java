@@ -0,0 +1,15 @@
+package com.rednote.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "rednote.publish")
+public class PublishProperties {
+    // 后台发布 (上传图片 + 更新帖子) 的线程数
+    private int workers = 8;
+    // 排队等待的发布任务上限，超出时直接拒绝，客户端稍后重试
+    private int queueCapacity = 500;
+}
@@ -0,0 +1,17 @@
+package com.rednote.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "rednote.reconcile")
+public class ReconcileProperties {
+    // 校正任务的 cron 表达式，@Scheduled 直接读取同名配置
+    private String cron = "0 30 3 * * *";
+    // 每批校正的 ID 区间长度
+    private int batchSize = 1000;
+    // 启动时是否先执行一次 (用于历史数据回填)
+    private boolean runOnStartup = false;
+}
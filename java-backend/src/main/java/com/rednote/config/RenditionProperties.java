@@ -0,0 +1,23 @@
+package com.rednote.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "rednote.rendition")
+public class RenditionProperties {
+    // 是否在上传后生成缩略图等尺寸版本
+    private boolean enabled = true;
+    // 编码线程数 (CPU 密集，不宜超过核数)
+    private int workers = 2;
+    // 排队任务上限，超出后直接丢弃 (原图照常可用)
+    private int queueCapacity = 200;
+    // 各尺寸版本的宽度 (px)，小于该宽度的图片不放大
+    private int thumbWidth = 240;
+    private int feedWidth = 540;
+    private int detailWidth = 1080;
+    // JPEG 压缩质量 0-1
+    private float quality = 0.82f;
+}
@@ -0,0 +1,65 @@
+package com.rednote.config;
+
+import com.aliyun.oss.ClientBuilderConfiguration;
+import com.aliyun.oss.OSS;
+import com.aliyun.oss.OSSClientBuilder;
+import com.rednote.storage.LocalDiskStorageService;
+import com.rednote.storage.OssStorageService;
+import com.rednote.storage.ParallelUploader;
+import com.rednote.storage.StorageService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class StorageConfig {
+
+    /**
+     * 全局唯一的 OSSClient，内部自带 HTTP 连接池，随容器关闭
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = "rednote.storage.type", havingValue = "oss", matchIfMissing = true)
+    public OSS ossClient(AliOssProperties aliOssProperties, StorageProperties storageProperties) {
+        ClientBuilderConfiguration conf = new ClientBuilderConfiguration();
+        conf.setMaxConnections(storageProperties.getMaxConnections());
+        conf.setConnectionTimeout((int) storageProperties.getConnectionTimeout().toMillis());
+        conf.setSocketTimeout((int) storageProperties.getSocketTimeout().toMillis());
+        return new OSSClientBuilder().build(aliOssProperties.getEndpoint(),
+                aliOssProperties.getAccessKeyId(), aliOssProperties.getAccessKeySecret(), conf);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "rednote.storage.type", havingValue = "oss", matchIfMissing = true)
+    public StorageService ossStorageService(OSS ossClient, AliOssProperties aliOssProperties) {
+        return new OssStorageService(ossClient, aliOssProperties);
+    }
+
+    /**
+     * 本地磁盘存储，文件由 FileController 通过 /files/** 对外提供
+     */
+    @Bean
+    @ConditionalOnProperty(name = "rednote.storage.type", havingValue = "local")
+    public LocalDiskStorageService localDiskStorageService(StorageProperties storageProperties) {
+        return new LocalDiskStorageService(Path.of(storageProperties.getLocalRoot()), storageProperties.getLocalBaseUrl());
+    }
+
+    /**
+     * 上传任务基本都在等网络 IO，用虚拟线程执行，并发度由 ParallelUploader 的信号量控制
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService uploadExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @Bean
+    public ParallelUploader parallelUploader(StorageService storageService, ExecutorService uploadExecutor,
+                                             StorageProperties storageProperties, MeterRegistry meterRegistry) {
+        return new ParallelUploader(storageService, uploadExecutor,
+                storageProperties.getUploadConcurrency(), storageProperties.getUploadTimeout(), meterRegistry);
+    }
+}
@@ -0,0 +1,27 @@
+package com.rednote.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "rednote.storage")
+public class StorageProperties {
+    // 存储实现：oss (阿里云) / local (本地文件系统替身)
+    private String type = "oss";
+    // OSSClient 连接池最大连接数
+    private int maxConnections = 64;
+    // 建立连接 / 读写超时
+    private Duration connectionTimeout = Duration.ofSeconds(5);
+    private Duration socketTimeout = Duration.ofSeconds(30);
+    // 全局同时进行的上传数上限
+    private int uploadConcurrency = 16;
+    // 单个文件从提交到上传完成的超时
+    private Duration uploadTimeout = Duration.ofSeconds(30);
+    // local 模式下的存储目录和访问地址前缀
+    private String localRoot = "./storage";
+    private String localBaseUrl = "http://localhost:8080/rednote/files";
+}
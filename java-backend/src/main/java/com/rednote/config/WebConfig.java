@@ -14,7 +14,9 @@ public class WebConfig implements WebMvcConfigurer {
                 .addPathPatterns("/**") // 拦截所有接口
                 .excludePathPatterns(
                         "/users/login", // 放行登录
-                        "/users/register"// 放行注册
+                        "/users/register", // 放行注册
+                        "/files/**", // 放行本地存储的静态文件
+                        "/actuator/**" // 放行监控端点 (跑在单独的管理端口上，默认只监听本机，见 management.server)
                         );
     }
 }
\ No newline at end of file
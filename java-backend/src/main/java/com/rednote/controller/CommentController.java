@@ -2,7 +2,6 @@ package com.rednote.controller;
 
 import com.rednote.common.CursorResult;
 import com.rednote.common.Result;
-import com.rednote.entity.Comment;
 import com.rednote.entity.dto.AddCommentDTO;
 import com.rednote.entity.vo.CommentVO;
 import com.rednote.service.CommentService;
@@ -10,8 +9,6 @@ import jakarta.annotation.Resource;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/comments")
 public class CommentController {
@@ -27,10 +24,13 @@ public class CommentController {
         return Result.success(commentService.publishComment(addCommentDTO, file));
     }
 
-    // 获取一级评论列表
+    // 获取一级评论列表 (游标分页)
     @GetMapping("/roots")
-    public Result<List<Comment>> getRoots(@RequestParam Long postId) {
-        return Result.success(commentService.getRootComments(postId));
+    public Result<CursorResult<CommentVO>> getRoots(
+            @RequestParam Long postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return Result.success(commentService.getRootComments(postId, cursor, size));
     }
 
     // 获取楼中楼回复
@@ -1,7 +1,7 @@
 package com.rednote.controller;
 
 import com.rednote.common.Result;
-import com.rednote.utils.AliOssUtil;
+import com.rednote.utils.UploadUtil;
 import jakarta.annotation.Resource;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -13,7 +13,7 @@ import org.springframework.web.multipart.MultipartFile;
 public class CommonController {
 
     @Resource
-    private AliOssUtil aliOssUtil;
+    private UploadUtil uploadUtil;
 
     /**
      * 文件上传接口
@@ -23,7 +23,7 @@ public class CommonController {
     @PostMapping("/upload")
     public Result<String> upload(MultipartFile file) {
         try {
-            String url = aliOssUtil.upload(file);
+            String url = uploadUtil.upload(file);
             return Result.success(url);
         } catch (Exception e) {
             return Result.error("文件上传失败");
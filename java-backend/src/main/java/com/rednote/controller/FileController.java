@@ -0,0 +1,60 @@
+package com.rednote.controller;
+
+import com.rednote.storage.LocalDiskStorageService;
+import jakarta.annotation.Resource;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * 本地磁盘存储的静态文件访问 (仅 rednote.storage.type=local 时生效)
+ * 返回 Resource，Spring MVC 会自动处理 Range 请求 (206 Partial Content)
+ */
+@RestController
+@RequestMapping("/files")
+@ConditionalOnProperty(name = "rednote.storage.type", havingValue = "local")
+public class FileController {
+
+    private static final String PREFIX = "/files/";
+
+    @Resource
+    private LocalDiskStorageService localDiskStorageService;
+
+    /**
+     * 读取文件
+     * GET /files/2025/11/26/xxx.jpg
+     */
+    @GetMapping("/**")
+    public ResponseEntity<FileSystemResource> get(HttpServletRequest request) {
+        String uri = request.getRequestURI().substring(request.getContextPath().length());
+        String key = uri.substring(PREFIX.length());
+
+        Path path;
+        try {
+            path = localDiskStorageService.resolve(key);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!Files.isRegularFile(path)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        FileSystemResource resource = new FileSystemResource(path);
+        // key 带 UUID，内容不会变，可以长期缓存
+        return ResponseEntity.ok()
+                .contentType(MediaTypeFactory.getMediaType(resource).orElse(MediaType.APPLICATION_OCTET_STREAM))
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(30)).cachePublic())
+                .body(resource);
+    }
+}
@@ -5,6 +5,7 @@ import com.rednote.common.Result;
 import com.rednote.entity.dto.PostPublishDTO;
 import com.rednote.entity.vo.PostDetailVO;
 import com.rednote.entity.vo.PostInfoVO;
+import com.rednote.entity.vo.PostStatusVO;
 import com.rednote.service.PostService;
 import jakarta.annotation.Resource;
 import org.springframework.web.bind.annotation.*;
@@ -26,6 +27,25 @@ public class PostController {
         return Result.success(postService.publishPost(postPublishDTO, files));
     }
 
+    // 异步发布帖子：立即返回帖子ID和 PENDING 状态，客户端轮询 /posts/{id}/status
+    @PostMapping("/publish/async")
+    public Result<PostStatusVO> publishAsync(
+            PostPublishDTO postPublishDTO,
+            @RequestParam(value = "files", required = false) MultipartFile[] files
+    ) {
+        return Result.success(postService.publishPostAsync(postPublishDTO, files));
+    }
+
+    // 查询发布状态
+    @GetMapping("/{id}/status")
+    public Result<PostStatusVO> getStatus(@PathVariable Long id) {
+        PostStatusVO status = postService.getPublishStatus(id);
+        if (status == null) {
+            return Result.error("帖子不存在");
+        }
+        return Result.success(status);
+    }
+
     // 获取帖子详情
     @GetMapping("/{id}")
     public Result<PostDetailVO> getDetail(@PathVariable Long id) {
@@ -35,7 +55,7 @@ public class PostController {
     // 获取首页流 (Feed)
     @GetMapping("/feed")
     public Result<CursorResult<PostInfoVO>> getFeed(
-            @RequestParam(required = false) Long lastId, // 第一次传 null
+            @RequestParam(required = false) String lastId, // 上一页返回的 nextCursor，第一次传 null
             @RequestParam(defaultValue = "10") int size) {
         return Result.success(postService.getFeedList(lastId, size));
     }
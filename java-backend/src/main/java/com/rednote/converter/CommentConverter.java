@@ -0,0 +1,23 @@
+package com.rednote.converter;
+
+import com.rednote.entity.Comment;
+import com.rednote.entity.vo.CommentVO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * 评论实体转 VO
+ * 点赞数叠加、用户信息、点赞状态、Top Reply 和回复数由调用方填充
+ */
+@Mapper(componentModel = "spring")
+public interface CommentConverter {
+
+    @Mapping(target = "thumbnailUrl", source = "imageThumbUrl")
+    @Mapping(target = "detailUrl", source = "imageDetailUrl")
+    @Mapping(target = "nickname", ignore = true)
+    @Mapping(target = "avatarUrl", ignore = true)
+    @Mapping(target = "isLiked", ignore = true)
+    @Mapping(target = "topReply", ignore = true)
+    @Mapping(target = "replyCount", ignore = true)
+    CommentVO toVO(Comment comment);
+}
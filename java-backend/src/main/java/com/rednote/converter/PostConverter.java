@@ -0,0 +1,31 @@
+package com.rednote.converter;
+
+import com.rednote.cache.FeedItem;
+import com.rednote.entity.Post;
+import com.rednote.entity.vo.PostDetailVO;
+import com.rednote.entity.vo.PostInfoVO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * 帖子实体转 VO (编译期生成实现，不走反射)
+ * 作者昵称头像、点赞状态等需要额外查询的字段由调用方填充
+ */
+@Mapper(componentModel = "spring")
+public interface PostConverter {
+
+    @Mapping(target = "authorId", source = "userId")
+    @Mapping(target = "authorName", ignore = true)
+    @Mapping(target = "authorAvatar", ignore = true)
+    @Mapping(target = "isLiked", ignore = true)
+    PostDetailVO toDetailVO(Post post);
+
+    /**
+     * Feed 卡片，点赞数需要叠加未落库的增量，由调用方设置
+     */
+    @Mapping(target = "likeCount", ignore = true)
+    @Mapping(target = "nickname", ignore = true)
+    @Mapping(target = "avatarUrl", ignore = true)
+    @Mapping(target = "isLiked", ignore = true)
+    PostInfoVO toInfoVO(FeedItem item);
+}
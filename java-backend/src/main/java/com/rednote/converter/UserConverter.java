@@ -0,0 +1,14 @@
+package com.rednote.converter;
+
+import com.rednote.entity.User;
+import com.rednote.entity.vo.UserInfoVO;
+import org.mapstruct.Mapper;
+
+/**
+ * 用户实体转 VO (不含密码等敏感字段)
+ */
+@Mapper(componentModel = "spring")
+public interface UserConverter {
+
+    UserInfoVO toInfoVO(User user);
+}
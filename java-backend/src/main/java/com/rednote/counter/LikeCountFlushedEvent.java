@@ -0,0 +1,23 @@
+package com.rednote.counter;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * 一批点赞增量已写回数据库 (库里的 like_count 发生了变化)
+ */
+@Getter
+@AllArgsConstructor
+public class LikeCountFlushedEvent {
+
+    public enum Target {
+        POST, COMMENT
+    }
+
+    private final Target target;
+
+    // key: 帖子/评论ID, value: 本次写回的增量
+    private final Map<Long, Long> deltas;
+}
@@ -0,0 +1,250 @@
+package com.rednote.counter;
+
+import com.rednote.config.LikeCounterProperties;
+import com.rednote.mapper.CommentMapper;
+import com.rednote.mapper.PostMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * 点赞计数写回聚合器
+ * 点赞/取消点赞只在内存中按 ID 累加增量 (LongAdder 分段计数，热点帖子也不会互相争抢)，
+ * 由定时任务把增量合并成批量 UPDATE 写回 posts.like_count / comments.like_count，
+ * 避免热点行上的 InnoDB 行锁排队。读接口通过 overlay 方法叠加尚未落库的增量。
+ */
+@Slf4j
+@Component
+public class LikeCounterAggregator {
+
+    @Resource
+    private PostMapper postMapper;
+
+    @Resource
+    private CommentMapper commentMapper;
+
+    @Resource
+    private LikeCounterProperties likeCounterProperties;
+
+    @Resource
+    private ApplicationEventPublisher eventPublisher;
+
+    private final DeltaTable postDeltas = new DeltaTable();
+
+    private final DeltaTable commentDeltas = new DeltaTable();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public void incrementPost(Long postId, long delta) {
+        afterCommit(() -> postDeltas.add(postId, delta));
+    }
+
+    public void incrementComment(Long commentId, long delta) {
+        afterCommit(() -> commentDeltas.add(commentId, delta));
+    }
+
+    /**
+     * 帖子点赞数 = 库里的值 + 尚未写回的增量
+     */
+    public int overlayPostLikeCount(Long postId, Integer storedCount) {
+        return overlay(storedCount, postDeltas.pending(postId));
+    }
+
+    /**
+     * 评论点赞数 = 库里的值 + 尚未写回的增量
+     */
+    public int overlayCommentLikeCount(Long commentId, Integer storedCount) {
+        return overlay(storedCount, commentDeltas.pending(commentId));
+    }
+
+    /**
+     * 定时把累计的增量写回数据库
+     */
+    @Scheduled(fixedDelayString = "${rednote.like-counter.flush-interval-ms:1000}")
+    public void flush() {
+        // 持锁写库，用 ReentrantLock 而不是 synchronized，虚拟线程等待时不会钉住载体线程
+        flushLock.lock();
+        try {
+            flushTable(LikeCountFlushedEvent.Target.POST, postDeltas, postMapper::batchIncrLikeCount);
+            flushTable(LikeCountFlushedEvent.Target.COMMENT, commentDeltas, commentMapper::batchIncrLikeCount);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 应用关闭前把剩余增量全部落库 (Mapper 在本 Bean 之后才销毁)
+     */
+    @PreDestroy
+    public void drain() {
+        flush();
+    }
+
+    private void flushTable(LikeCountFlushedEvent.Target target, DeltaTable deltas, ToIntFunction<Map<Long, Long>> writer) {
+        Map<Long, Long> drained = deltas.drain();
+        if (drained.isEmpty()) {
+            deltas.compact();
+            return;
+        }
+
+        // 按 batch-size 切分，每批一条 UPDATE ... CASE id WHEN ... 语句
+        int batchSize = Math.max(1, likeCounterProperties.getBatchSize());
+        List<Map<Long, Long>> batches = new ArrayList<>();
+        Map<Long, Long> batch = new LinkedHashMap<>();
+        for (Map.Entry<Long, Long> entry : drained.entrySet()) {
+            batch.put(entry.getKey(), entry.getValue());
+            if (batch.size() >= batchSize) {
+                batches.add(batch);
+                batch = new LinkedHashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+
+        for (int i = 0; i < batches.size(); i++) {
+            // 只有写库失败才回滚；写库成功之后的任何异常都不能再把增量放回内存，否则下一轮会重复累加
+            try {
+                writer.applyAsInt(batches.get(i));
+            } catch (Exception e) {
+                // 写回失败：把本批及后续批次的增量放回内存，下一轮重试
+                log.error("Flush like counters of {} failed, {} batches will be retried", target, batches.size() - i, e);
+                for (int j = i; j < batches.size(); j++) {
+                    deltas.rollback(batches.get(j));
+                }
+                return;
+            }
+            // 先释放 inflight，再通知缓存更新基准值 (时间线会把增量原地加到缓存的点赞数上)，
+            // 反过来的话两步之间的读会把同一份增量算两次；现在的顺序最多短暂少算，不会虚高
+            deltas.commit(batches.get(i));
+            try {
+                eventPublisher.publishEvent(new LikeCountFlushedEvent(target, batches.get(i)));
+            } catch (Exception e) {
+                // 缓存没跟上只影响展示，等缓存过期或下次失效即可恢复
+                log.warn("Notify like count flush of {} failed", target, e);
+            }
+        }
+        deltas.compact();
+    }
+
+    /**
+     * 在事务中调用时，等点赞记录提交后再计数，回滚则不计
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static int overlay(Integer storedCount, long pending) {
+        long count = (storedCount == null ? 0 : storedCount) + pending;
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, count));
+    }
+
+    /**
+     * 一类目标 (帖子或评论) 的增量表
+     * pending: 还没被刷盘任务取走的增量; inflight: 已取走、正在写库的增量 (读的时候也要算上)
+     */
+    static final class DeltaTable {
+
+        private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+        private final ConcurrentHashMap<Long, Long> inflight = new ConcurrentHashMap<>();
+
+        // 只有 compact 拿写锁；累加走乐观读，热路径上没有共享的 CAS
+        private final StampedLock compactLock = new StampedLock();
+
+        void add(Long id, long delta) {
+            long stamp = compactLock.tryOptimisticRead();
+            LongAdder adder = pending.computeIfAbsent(id, k -> new LongAdder());
+            adder.add(delta);
+            if (compactLock.validate(stamp)) {
+                return;
+            }
+            // 和 compact 并发了：等 compact 结束后确认 adder 还在表里，
+            // 如果已被移除 (被移除的 adder 不会再被刷盘)，把增量挪到新的 adder 上
+            long readStamp = compactLock.readLock();
+            try {
+                if (pending.get(id) != adder) {
+                    adder.add(-delta);
+                    pending.computeIfAbsent(id, k -> new LongAdder()).add(delta);
+                }
+            } finally {
+                compactLock.unlockRead(readStamp);
+            }
+        }
+
+        long pending(Long id) {
+            LongAdder adder = pending.get(id);
+            Long flushing = inflight.get(id);
+            return (adder == null ? 0 : adder.sum()) + (flushing == null ? 0 : flushing);
+        }
+
+        /**
+         * 取走所有非零增量，转入 inflight
+         * 用 sum + add(-sum) 而不是 sumThenReset，保证并发累加不会丢
+         */
+        Map<Long, Long> drain() {
+            Map<Long, Long> drained = new HashMap<>();
+            pending.forEach((id, adder) -> {
+                long delta = adder.sum();
+                if (delta != 0) {
+                    inflight.merge(id, delta, Long::sum);
+                    adder.add(-delta);
+                    drained.put(id, delta);
+                }
+            });
+            return drained;
+        }
+
+        void commit(Map<Long, Long> batch) {
+            batch.forEach(this::releaseInflight);
+        }
+
+        void rollback(Map<Long, Long> batch) {
+            batch.forEach((id, delta) -> {
+                add(id, delta);
+                releaseInflight(id, delta);
+            });
+        }
+
+        /**
+         * 清掉已经归零的计数器，防止冷门 ID 长期占用内存
+         */
+        void compact() {
+            long stamp = compactLock.writeLock();
+            try {
+                pending.values().removeIf(adder -> adder.sum() == 0);
+            } finally {
+                compactLock.unlockWrite(stamp);
+            }
+        }
+
+        private void releaseInflight(Long id, Long delta) {
+            inflight.computeIfPresent(id, (k, v) -> v - delta == 0 ? null : v - delta);
+        }
+    }
+}
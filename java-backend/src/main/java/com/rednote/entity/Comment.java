@@ -19,6 +19,9 @@ public class Comment {
 
     private Integer likeCount;
 
+    // 楼中楼回复数 (仅一级评论，发表回复时维护)
+    private Integer replyCount;
+
     // 父评论ID (如果是直接回复帖子，则为null)
     private Long parentId;
 
@@ -28,6 +31,9 @@ public class Comment {
     // 被回复的用户ID
     private Long replyToUserId;
 
+    // 最早的一条回复 (Top Reply) ID，仅一级评论
+    private Long topReplyId;
+
     @TableField(fill = FieldFill.INSERT)
     private LocalDateTime createdAt;
 
@@ -36,4 +42,9 @@ public class Comment {
     private Integer imageWidth;
 
     private Integer imageHeight;
+
+    // 评论图片的缩略图 / 详情尺寸版本 (后台异步生成)
+    private String imageThumbUrl;
+
+    private String imageDetailUrl;
 }
\ No newline at end of file
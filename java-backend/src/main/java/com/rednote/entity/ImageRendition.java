@@ -0,0 +1,26 @@
+package com.rednote.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 一张图片的各尺寸版本 (上传后由后台生成一次，读取时不再重新编码)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageRendition {
+
+    // 缩略图 (评论列表等小图位)
+    private String thumb;
+
+    // Feed 卡片封面
+    private String feed;
+
+    // 详情页大图
+    private String detail;
+
+    // 详情尺寸的 WebP 版本 (服务端有 WebP 编码器时才生成，否则为 null)
+    private String webp;
+}
@@ -2,6 +2,7 @@ package com.rednote.entity;
 
 import com.baomidou.mybatisplus.annotation.*;
 import com.baomidou.mybatisplus.extension.handlers.JacksonTypeHandler;
+import com.rednote.handler.ImageRenditionListTypeHandler;
 import lombok.Data;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -11,6 +12,11 @@ import java.util.List;
 @TableName(value = "posts", autoResultMap = true)
 public class Post {
 
+    // 发布状态：异步发布时先落一条"处理中"的记录，图片上传完成后改为已发布
+    public static final int STATUS_PENDING = 0;
+    public static final int STATUS_PUBLISHED = 1;
+    public static final int STATUS_FAILED = 2;
+
     @TableId(type = IdType.AUTO)
     private Long id;
 
@@ -28,6 +34,16 @@ public class Post {
     @TableField(typeHandler = JacksonTypeHandler.class)
     private List<String> images;
 
+    /**
+     * 每张图片的各尺寸版本，与 images 一一对应
+     * 上传后由后台异步生成，生成完成前为 null
+     */
+    @TableField(typeHandler = ImageRenditionListTypeHandler.class)
+    private List<ImageRendition> imageRenditions;
+
+    // Feed 封面 (第一张图片的 Feed 尺寸版本，尚未生成时为原图)，保存时由 PostServiceImpl 维护
+    private String coverUrl;
+
     private Integer likeCount;
 
     private Integer commentCount;
@@ -36,6 +52,8 @@ public class Post {
 
     private Integer imgHeight;
 
+    private Integer status;
+
     @TableField(fill = FieldFill.INSERT)
     private LocalDateTime createdAt;
 
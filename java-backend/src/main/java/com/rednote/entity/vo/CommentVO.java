@@ -18,6 +18,10 @@ public class CommentVO {
     private String imageUrl;
     private Integer imageWidth;
     private Integer imageHeight;
+    // 列表里展示用的缩略图，尚未生成时为 null，客户端退回 imageUrl
+    private String thumbnailUrl;
+    // 点开大图用的详情尺寸，尚未生成时为 null
+    private String detailUrl;
 
     // 楼中楼回复 (仅显示一条)
     private CommentVO topReply;
@@ -1,5 +1,7 @@
 package com.rednote.entity.vo;
 
+import com.rednote.entity.ImageRendition;
+
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -12,6 +14,7 @@ public class PostDetailVO {
     private String title;
     private String content;
     private List<String> images;
+    private List<ImageRendition> imageRenditions; // 与 images 一一对应的各尺寸版本，未生成时为 null
     private Integer imgWidth; // 核心：用于前端计算比例
     private Integer imgHeight; // 核心：用于前端计算比例
     private LocalDateTime createdAt;
@@ -0,0 +1,14 @@
+package com.rednote.entity.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostStatusVO {
+    private Long id;
+    // PENDING 后台处理中 / PUBLISHED 已发布 / FAILED 发布失败
+    private String status;
+}
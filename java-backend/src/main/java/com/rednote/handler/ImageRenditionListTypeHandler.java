@@ -0,0 +1,64 @@
+package com.rednote.handler;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rednote.entity.ImageRendition;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.MappedTypes;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * posts.image_renditions 的 JSON 与 List<ImageRendition> 互转
+ * JacksonTypeHandler 在 XML resultMap 里拿不到泛型参数，会把元素读成 Map，这里写死元素类型
+ */
+@MappedTypes(List.class)
+public class ImageRenditionListTypeHandler extends BaseTypeHandler<List<ImageRendition>> {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final TypeReference<List<ImageRendition>> TYPE = new TypeReference<>() {
+    };
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, List<ImageRendition> parameter, JdbcType jdbcType)
+            throws SQLException {
+        try {
+            ps.setString(i, OBJECT_MAPPER.writeValueAsString(parameter));
+        } catch (JsonProcessingException e) {
+            throw new SQLException("图片尺寸版本序列化失败", e);
+        }
+    }
+
+    @Override
+    public List<ImageRendition> getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return parse(rs.getString(columnName));
+    }
+
+    @Override
+    public List<ImageRendition> getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return parse(rs.getString(columnIndex));
+    }
+
+    @Override
+    public List<ImageRendition> getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return parse(cs.getString(columnIndex));
+    }
+
+    private static List<ImageRendition> parse(String json) throws SQLException {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        try {
+            return OBJECT_MAPPER.readValue(json, TYPE);
+        } catch (JsonProcessingException e) {
+            throw new SQLException("图片尺寸版本解析失败", e);
+        }
+    }
+}
@@ -26,16 +26,12 @@ public class LoginInterceptor implements HandlerInterceptor {
 
         String token = header.substring(7); // 去掉 "Bearer " 前缀
 
-        // 3. 校验 Token
-        try {
-            if (JwtUtils.validateToken(token)) {
-                // 4. 解析成功，将 userId 存入 ThreadLocal
-                Long userId = JwtUtils.getUserId(token);
-                UserContext.setUserId(userId);
-                return true; // 放行
-            }
-        } catch (Exception e) {
-            // 解析失败
+        // 3. 校验 Token (最多验签一次，验证过的 Token 直接命中缓存)
+        Long userId = JwtUtils.verify(token);
+        if (userId != null) {
+            // 4. 解析成功，将 userId 存入 ThreadLocal
+            UserContext.setUserId(userId);
+            return true; // 放行
         }
 
         response.setStatus(401);
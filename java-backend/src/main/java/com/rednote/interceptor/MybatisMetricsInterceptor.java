@@ -0,0 +1,51 @@
+package com.rednote.interceptor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Resource;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.stereotype.Component;
+
+/**
+ * 每条 Mapper 语句的耗时 (mybatis.statement)
+ * statement 标签是 Mapper 方法的全限定名，例如 com.rednote.mapper.PostMapper.selectPostDetail，
+ * 包含从连接池取连接、执行 SQL 和结果映射的全部时间
+ */
+@Component
+@Intercepts({
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class})
+})
+public class MybatisMetricsInterceptor implements Interceptor {
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            Object result = invocation.proceed();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(Timer.builder("mybatis.statement")
+                    .description("MyBatis mapped statement execution time")
+                    .tag("statement", ms.getId())
+                    .tag("type", ms.getSqlCommandType().name())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.rednote.interceptor;
+
+import com.rednote.common.ParallelStages;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * 列表页组装阶段内的 SQL 设置语句超时 (rednote.assembly.query-timeout)
+ * 超时后驱动让 MySQL 取消查询、连接立即归还连接池，而不是在后台一直占着连接跑完
+ */
+@Component
+@Intercepts({
+        @Signature(type = StatementHandler.class, method = "prepare",
+                args = {Connection.class, Integer.class})
+})
+public class StageQueryTimeoutInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Statement statement = (Statement) invocation.proceed();
+        Integer timeout = ParallelStages.currentQueryTimeout();
+        if (timeout != null && (statement.getQueryTimeout() == 0 || statement.getQueryTimeout() > timeout)) {
+            statement.setQueryTimeout(timeout);
+        }
+        return statement;
+    }
+}
@@ -0,0 +1,82 @@
+package com.rednote.job;
+
+import com.rednote.cache.PostDetailCache;
+import com.rednote.config.ReconcileProperties;
+import com.rednote.mapper.CommentMapper;
+import com.rednote.mapper.PostMapper;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 评论计数冗余字段的校正/回填任务：posts.comment_count，以及一级评论上的 reply_count / top_reply_id
+ * 发表评论时已同步维护这些字段，这里按 ID 区间分批用真实数据兜底校正，
+ * 每批只扫一小段索引，不会长时间锁表。
+ * 被校正的帖子随后清掉详情缓存 (Feed 时间线不含评论数，不受影响)；回复数和 Top Reply 不在任何缓存里，改完即生效
+ */
+@Slf4j
+@Component
+public class CommentCountReconcileJob {
+
+    @Resource
+    private PostMapper postMapper;
+
+    @Resource
+    private CommentMapper commentMapper;
+
+    @Resource
+    private ReconcileProperties reconcileProperties;
+
+    @Resource
+    private PostDetailCache postDetailCache;
+
+    // 防止定时任务和启动回填同时执行 (不用 synchronized，避免钉住虚拟线程)
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (reconcileProperties.isRunOnStartup()) {
+            reconcile();
+        }
+    }
+
+    @Scheduled(cron = "${rednote.reconcile.cron:0 30 3 * * *}")
+    public int reconcile() {
+        lock.lock();
+        try {
+            int batchSize = Math.max(1, reconcileProperties.getBatchSize());
+            int fixedPosts = 0;
+            Long maxPostId = postMapper.selectMaxId();
+            if (maxPostId != null) {
+                for (long fromId = 1; fromId <= maxPostId; fromId += batchSize) {
+                    long toId = fromId + batchSize - 1;
+                    // 先找出不一致的帖子，整段都一致时连 UPDATE 都不用发
+                    List<Long> drifted = postMapper.selectCommentCountDrift(fromId, toId);
+                    if (drifted.isEmpty()) {
+                        continue;
+                    }
+                    fixedPosts += postMapper.reconcileCommentCounts(fromId, toId);
+                    drifted.forEach(postDetailCache::invalidate);
+                }
+            }
+            int fixedComments = 0;
+            Long maxCommentId = commentMapper.selectMaxId();
+            if (maxCommentId != null) {
+                for (long fromId = 1; fromId <= maxCommentId; fromId += batchSize) {
+                    fixedComments += commentMapper.reconcileReplyStats(fromId, fromId + batchSize - 1);
+                }
+            }
+            log.info("Comment count reconcile finished, {} posts and {} root comments corrected",
+                    fixedPosts, fixedComments);
+            return fixedPosts + fixedComments;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
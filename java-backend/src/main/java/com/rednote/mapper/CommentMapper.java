@@ -3,7 +3,6 @@ package com.rednote.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.rednote.entity.Comment;
 import com.rednote.entity.vo.CommentVO;
-import org.apache.ibatis.annotations.MapKey;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
@@ -13,22 +12,7 @@ import java.util.Map;
 @Mapper
 public interface CommentMapper extends BaseMapper<Comment> {
         /**
-         * 批量查询一级评论下的最佳回复（Top Reply）
-         * 优先级：时间最早
-         */
-        List<Comment> selectTopReplies(
-                        @Param("rootIds") List<Long> rootIds,
-                        @Param("postAuthorId") Long postAuthorId);
-
-        /**
-         * 批量统计一级评论下的回复数
-         */
-        @MapKey("rootId")
-        List<Map<String, Object>> selectReplyCounts(
-                        @Param("rootIds") List<Long> rootIds);
-
-        /**
-         * 联表查询评论列表
+         * 联表查询一级评论列表，带回复数和 Top Reply
          */
         List<CommentVO> selectCommentFeed(
                         @Param("postId") Long postId,
@@ -36,4 +20,28 @@ public interface CommentMapper extends BaseMapper<Comment> {
                         @Param("lastId") Long lastId,
                         @Param("limit") int limit,
                         @Param("currentUserId") Long currentUserId);
+
+        /**
+         * 按 ID 批量查询一级评论 (与 selectCommentFeed 相同的列)，不保证顺序
+         */
+        List<CommentVO> selectCommentFeedByIds(
+                        @Param("ids") List<Long> ids,
+                        @Param("currentUserId") Long currentUserId);
+
+        /**
+         * 批量写回点赞增量 (key: 评论ID, value: 增量)
+         */
+        int batchIncrLikeCount(@Param("deltas") Map<Long, Long> deltas);
+
+        /**
+         * 发表回复后更新根评论的回复数和 Top Reply
+         */
+        int incrReplyStats(@Param("rootId") Long rootId, @Param("replyId") Long replyId);
+
+        Long selectMaxId();
+
+        /**
+         * 按 [fromId, toId] 区间用真实回复校正一级评论的 reply_count / top_reply_id，返回被修正的行数
+         */
+        int reconcileReplyStats(@Param("fromId") Long fromId, @Param("toId") Long toId);
 }
\ No newline at end of file
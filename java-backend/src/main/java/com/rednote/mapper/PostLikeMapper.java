@@ -3,7 +3,13 @@ package com.rednote.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.rednote.entity.PostLike;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 
 @Mapper
 public interface PostLikeMapper extends BaseMapper<PostLike> {
+
+    /**
+     * 幂等点赞：插入成功返回 1，已经点过赞返回 0
+     */
+    int insertIgnore(@Param("userId") Long userId, @Param("postId") Long postId);
 }
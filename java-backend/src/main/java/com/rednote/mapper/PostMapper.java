@@ -1,13 +1,45 @@
 package com.rednote.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.rednote.cache.FeedItem;
 import com.rednote.entity.Post;
 import com.rednote.entity.vo.PostDetailVO;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.util.List;
+import java.util.Map;
 
 @Mapper
 public interface PostMapper extends BaseMapper<Post> {
 
     PostDetailVO selectPostDetail(@Param("postId") Long postId, @Param("userId") Long userId);
+
+    /**
+     * 批量写回点赞增量 (key: 帖子ID, value: 增量)
+     */
+    int batchIncrLikeCount(@Param("deltas") Map<Long, Long> deltas);
+
+    /**
+     * 流式读取最新的 limit 条帖子的 Feed 卡片 (重建 Feed 时间线用)
+     */
+    void selectTimelineWindow(@Param("limit") int limit, ResultHandler<FeedItem> handler);
+
+    /**
+     * ID 小于 lastId 的 limit 条已发布帖子的 Feed 卡片 (lastId 为 null 时从最新开始)
+     */
+    List<FeedItem> selectFeedPage(@Param("lastId") Long lastId, @Param("limit") int limit);
+
+    Long selectMaxId();
+
+    /**
+     * [fromId, toId] 区间内 comment_count 与真实条数不一致的帖子ID (校正后要清掉它们的详情缓存)
+     */
+    List<Long> selectCommentCountDrift(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * 按 [fromId, toId] 区间用 comments 表的真实条数校正 comment_count，返回被修正的行数
+     */
+    int reconcileCommentCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
 }
\ No newline at end of file
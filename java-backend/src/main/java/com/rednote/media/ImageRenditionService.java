@@ -0,0 +1,330 @@
+package com.rednote.media;
+
+import com.rednote.config.RenditionProperties;
+import com.rednote.entity.ImageRendition;
+import com.rednote.storage.ParallelUploader;
+import com.rednote.storage.SpooledFile;
+import com.rednote.storage.UploadSource;
+import com.rednote.utils.ImageProbe;
+import com.rednote.utils.UploadUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 图片尺寸版本生成 (缩略图 / Feed 封面 / 详情大图 / WebP)
+ * 上传完成后把原图落到临时文件，由固定大小的后台线程池解码一次、编码各尺寸并上传，
+ * 结果通过回调写回帖子或评论；队列满时直接丢弃，客户端退回使用原图
+ */
+@Slf4j
+@Component
+public class ImageRenditionService {
+
+    // JDK 自带的 ImageIO 没有 WebP 编码器，由 webp-imageio 插件提供；插件缺失时不生成 WebP 版本
+    private static final boolean WEBP_SUPPORTED = ImageIO.getImageWritersByFormatName("webp").hasNext();
+
+    @Resource
+    private RenditionProperties renditionProperties;
+
+    @Resource
+    private ParallelUploader parallelUploader;
+
+    @Resource
+    private UploadUtil uploadUtil;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        int workers = Math.max(1, renditionProperties.getWorkers());
+        AtomicInteger index = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, renditionProperties.getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "rendition-" + index.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Rendition pool did not drain in time, {} tasks dropped", executor.shutdownNow().size());
+        }
+    }
+
+    /**
+     * 把上传的文件复制到临时目录 (请求结束后 multipart 的临时文件会被删掉)
+     * 未开启时返回空列表
+     */
+    public List<Path> spool(MultipartFile... files) {
+        if (!renditionProperties.isEnabled()) {
+            return new ArrayList<>();
+        }
+        try {
+            return uploadUtil.spool(files).stream().map(SpooledFile::path).collect(Collectors.toList());
+        } catch (Exception e) {
+            log.warn("Spool for renditions failed, skip", e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * 异步生成尺寸版本，回调拿到的列表与传入顺序一致 (某张失败时对应位置为 null)
+     * 临时文件的所有权交给本方法，处理完自动删除
+     */
+    public void submit(List<Path> spooled, Consumer<List<ImageRendition>> onReady) {
+        if (spooled.isEmpty()) {
+            return;
+        }
+        if (!renditionProperties.isEnabled()) {
+            deleteQuietly(spooled);
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    List<ImageRendition> renditions = new ArrayList<>(spooled.size());
+                    for (Path path : spooled) {
+                        renditions.add(renderQuietly(path));
+                    }
+                    onReady.accept(renditions);
+                } catch (Exception e) {
+                    log.warn("Rendition callback failed", e);
+                } finally {
+                    deleteQuietly(spooled);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Rendition queue is full, skip {} images", spooled.size());
+            deleteQuietly(spooled);
+        }
+    }
+
+    private ImageRendition renderQuietly(Path path) {
+        try {
+            return render(path);
+        } catch (Exception e) {
+            log.warn("Render {} failed", path, e);
+            return null;
+        }
+    }
+
+    /**
+     * 解码一次，依次缩放出各尺寸并上传
+     */
+    ImageRendition render(Path path) throws IOException {
+        ImageProbe.ImageInfo info;
+        try (InputStream in = Files.newInputStream(path)) {
+            info = ImageProbe.probe(in);
+        }
+        int orientation = info != null ? info.orientation() : 1;
+        BufferedImage source = decode(path, orientation);
+        if (source == null) {
+            return null;
+        }
+        // ImageIO 不处理 EXIF 方向，这里把旋转烘焙进像素，输出的 JPEG 不再带 EXIF
+        BufferedImage detail = scale(orient(source, orientation), renditionProperties.getDetailWidth());
+        BufferedImage feed = scale(detail, renditionProperties.getFeedWidth());
+        BufferedImage thumb = scale(feed, renditionProperties.getThumbWidth());
+
+        List<UploadSource> sources = new ArrayList<>(4);
+        sources.add(UploadSource.of("thumb.jpg", encodeJpeg(thumb), "image/jpeg"));
+        sources.add(UploadSource.of("feed.jpg", encodeJpeg(feed), "image/jpeg"));
+        sources.add(UploadSource.of("detail.jpg", encodeJpeg(detail), "image/jpeg"));
+        byte[] webp = WEBP_SUPPORTED ? encodeWebp(detail) : null;
+        if (webp != null) {
+            sources.add(UploadSource.of("detail.webp", webp, "image/webp"));
+        }
+        List<String> urls = parallelUploader.uploadAll(sources);
+        return new ImageRendition(urls.get(0), urls.get(1), urls.get(2), webp != null ? urls.get(3) : null);
+    }
+
+    /**
+     * 按整数倍抽样解码，只保留不小于详情尺寸的分辨率，避免把原图全部像素读进内存
+     */
+    private BufferedImage decode(Path path, int orientation) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(path.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // 旋转 90 度的图片，显示宽度是原始高度
+                boolean rotated = orientation >= 5 && orientation <= 8;
+                int displayWidth = rotated ? reader.getHeight(0) : reader.getWidth(0);
+                int factor = Math.max(1, displayWidth / renditionProperties.getDetailWidth());
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(factor, factor, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 按 EXIF 方向变换，同时转成不带透明通道的 RGB (透明区域填白色)
+     */
+    private static BufferedImage orient(BufferedImage image, int orientation) {
+        int w = image.getWidth();
+        int h = image.getHeight();
+        AffineTransform t = new AffineTransform();
+        switch (orientation) {
+            case 2 -> {
+                t.translate(w, 0);
+                t.scale(-1, 1);
+            }
+            case 3 -> {
+                t.translate(w, h);
+                t.rotate(Math.PI);
+            }
+            case 4 -> {
+                t.translate(0, h);
+                t.scale(1, -1);
+            }
+            case 5 -> {
+                t.rotate(-Math.PI / 2);
+                t.scale(-1, 1);
+            }
+            case 6 -> {
+                t.translate(h, 0);
+                t.rotate(Math.PI / 2);
+            }
+            case 7 -> {
+                t.translate(h, w);
+                t.rotate(Math.PI / 2);
+                t.scale(-1, 1);
+            }
+            case 8 -> {
+                t.translate(0, w);
+                t.rotate(3 * Math.PI / 2);
+            }
+            default -> {
+                if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+                    return image;
+                }
+            }
+        }
+        boolean rotated = orientation >= 5 && orientation <= 8;
+        BufferedImage result = new BufferedImage(rotated ? h : w, rotated ? w : h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = result.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, result.getWidth(), result.getHeight());
+            g.drawImage(image, t, null);
+        } finally {
+            g.dispose();
+        }
+        return result;
+    }
+
+    /**
+     * 缩放到指定宽度 (不放大)，每次最多缩小一半，避免一步缩放产生锯齿
+     */
+    private static BufferedImage scale(BufferedImage image, int targetWidth) {
+        BufferedImage current = image;
+        while (current.getWidth() > targetWidth) {
+            int width = Math.max(targetWidth, current.getWidth() / 2);
+            int height = Math.max(1, (int) Math.round((double) current.getHeight() * width / current.getWidth()));
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        }
+        return current;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (MemoryCacheImageOutputStream out = new MemoryCacheImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(renditionProperties.getQuality());
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 有损编码，质量与 JPEG 版本相同；WebP 只是附加版本，编码失败 (比如当前平台没有 libwebp 本地库) 时跳过，不影响 JPEG 版本
+     */
+    private byte[] encodeWebp(BufferedImage image) {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("webp").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (MemoryCacheImageOutputStream out = new MemoryCacheImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                // 压缩类型依次为 Lossy / Lossless
+                param.setCompressionType(param.getCompressionTypes()[0]);
+                param.setCompressionQuality(renditionProperties.getQuality());
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException | RuntimeException | LinkageError e) {
+            log.warn("Encode webp rendition failed, skip it", e);
+            return null;
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void deleteQuietly(List<Path> paths) {
+        for (Path path : paths) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                // 临时目录由系统定期清理
+            }
+        }
+    }
+}
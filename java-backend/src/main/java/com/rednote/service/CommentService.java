@@ -7,11 +7,9 @@ import com.rednote.entity.dto.AddCommentDTO;
 import com.rednote.entity.vo.CommentVO;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.List;
-
 public interface CommentService extends IService<Comment> {
-    // 获取某个帖子下的一级评论
-    List<Comment> getRootComments(Long postId);
+    // 获取某个帖子下的一级评论 (游标分页，按点赞数倒序，单页最多 50 条，不含 Top Reply)
+    CursorResult<CommentVO> getRootComments(Long postId, String cursor, int size);
 
     // 获取某个一级评论下的所有回复 (展开更多回复)
     CursorResult<CommentVO> getReplies(Long rootCommentId, String cursor, int size);
@@ -20,7 +18,7 @@ public interface CommentService extends IService<Comment> {
     boolean likeComment(Long commentId, boolean isLike);
 
     // 获取评论列表（游标分页）
-    // cursor: "likeCount-id"
+    // cursor: 上一页返回的 nextCursor (可为空)
     CursorResult<CommentVO> getCommentFeed(Long postId, String cursor,
             int size);
 
@@ -6,16 +6,23 @@ import com.rednote.entity.Post;
 import com.rednote.entity.dto.PostPublishDTO;
 import com.rednote.entity.vo.PostInfoVO;
 import com.rednote.entity.vo.PostDetailVO;
+import com.rednote.entity.vo.PostStatusVO;
 import org.springframework.web.multipart.MultipartFile;
 
 public interface PostService extends IService<Post> {
     // 发布帖子
     PostDetailVO publishPost(PostPublishDTO postPublishDTO, MultipartFile[] files);
 
+    // 异步发布：文件落盘后立即返回帖子ID，上传和入库在后台完成
+    PostStatusVO publishPostAsync(PostPublishDTO postPublishDTO, MultipartFile[] files);
+
+    // 发布状态 (仅作者可查)，帖子不存在或无权查看时返回 null
+    PostStatusVO getPublishStatus(Long postId);
+
     // 用游标分页获取推荐流
-    // lastId: 上一页最后一条的ID (可为空)
+    // cursor: 上一页返回的 nextCursor (可为空)
     // size: 每次加载多少条
-    CursorResult<PostInfoVO> getFeedList(Long lastId, int size);
+    CursorResult<PostInfoVO> getFeedList(String cursor, int size);
 
     PostDetailVO getPostDetailById(Long id);
 
@@ -3,93 +3,169 @@ package com.rednote.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.rednote.cache.HotCommentIndex;
+import com.rednote.cache.PostDetailCache;
+import com.rednote.cache.UserSummary;
+import com.rednote.cache.UserSummaryCache;
+import com.rednote.common.CursorCodec;
 import com.rednote.common.CursorResult;
+import com.rednote.common.ParallelStages;
 import com.rednote.common.UserContext;
+import com.rednote.converter.CommentConverter;
+import com.rednote.counter.LikeCounterAggregator;
 import com.rednote.entity.Comment;
 import com.rednote.entity.CommentLike;
-import com.rednote.entity.User;
+import com.rednote.entity.ImageRendition;
+import com.rednote.entity.Post;
 import com.rednote.entity.dto.AddCommentDTO;
 import com.rednote.entity.vo.CommentVO;
-import com.rednote.entity.vo.PostDetailVO;
 import com.rednote.mapper.CommentLikeMapper;
 import com.rednote.mapper.CommentMapper;
+import com.rednote.media.ImageRenditionService;
 import com.rednote.service.CommentService;
 import com.rednote.service.PostService;
-import com.rednote.service.UserService;
-import com.rednote.utils.AliOssUtil;
+import com.rednote.utils.ImageProbe;
+import com.rednote.utils.UploadUtil;
+import io.micrometer.core.annotation.Timed;
 import jakarta.annotation.Resource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
 public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> implements CommentService {
 
+    // 一级评论列表单页上限，防止一次拉取整个帖子的评论
+    private static final int MAX_ROOT_PAGE_SIZE = 50;
+
     @Resource
     private CommentLikeMapper commentLikeMapper;
 
     @Resource
-    private UserService userService;
+    private UserSummaryCache userSummaryCache;
 
     @Resource
     private PostService postService;
 
     @Resource
-    private AliOssUtil aliOssUtil;
+    private UploadUtil uploadUtil;
+
+    @Resource
+    private LikeCounterAggregator likeCounterAggregator;
+
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    @Resource
+    private PostDetailCache postDetailCache;
+
+    @Resource
+    private ImageRenditionService imageRenditionService;
+
+    @Resource
+    private CommentConverter commentConverter;
+
+    @Resource
+    private CursorCodec cursorCodec;
+
+    @Resource
+    private HotCommentIndex hotCommentIndex;
+
+    @Resource
+    private ParallelStages parallelStages;
 
     @Override
-    public List<Comment> getRootComments(Long postId) {
+    @Timed("rednote.service")
+    public CursorResult<CommentVO> getRootComments(Long postId, String cursor, int size) {
+        size = Math.max(1, Math.min(size, MAX_ROOT_PAGE_SIZE));
+        long[] keys = cursorCodec.decode(CursorCodec.Kind.COMMENT_FEED, cursor);
+
+        // 只查列表要展示的列，按 (like_count, id) 倒序走 idx_post_root_like
         LambdaQueryWrapper<Comment> query = new LambdaQueryWrapper<>();
-        query.eq(Comment::getPostId, postId)
+        query.select(Comment::getId, Comment::getPostId, Comment::getUserId, Comment::getContent,
+                        Comment::getLikeCount, Comment::getCreatedAt, Comment::getImageUrl,
+                        Comment::getImageWidth, Comment::getImageHeight,
+                        Comment::getImageThumbUrl, Comment::getImageDetailUrl)
+                .eq(Comment::getPostId, postId)
                 .isNull(Comment::getRootParentId) // 关键：只查一级评论
-                .orderByDesc(Comment::getLikeCount); // 热门评论排前面
-        return list(query);
+                .orderByDesc(Comment::getLikeCount) // 热门评论排前面
+                .orderByDesc(Comment::getId);
+        if (keys != null) {
+            query.apply(CursorCodec.after(true, "like_count", "id"), keys[0], keys[1]);
+        }
+        // 多查一条判断 hasMore
+        query.last("LIMIT " + (size + 1));
+        List<Comment> comments = parallelStages.run("roots", "query", () -> list(query));
+
+        boolean hasMore = comments.size() > size;
+        if (hasMore) {
+            comments.remove(comments.size() - 1);
+        }
+        String nextCursor = null;
+        if (!comments.isEmpty()) {
+            Comment last = comments.get(comments.size() - 1);
+            nextCursor = cursorCodec.encode(CursorCodec.Kind.COMMENT_FEED, last.getLikeCount(), last.getId());
+        }
+
+        List<CommentVO> voList = new ArrayList<>(comments.size());
+        if (!comments.isEmpty()) {
+            // 用户信息和点赞状态并行查询 (当前用户在请求线程上取好再传进去)
+            Long currentUserId = UserContext.getUserId();
+            Set<Long> userIds = comments.stream().map(Comment::getUserId).collect(Collectors.toSet());
+            List<Long> commentIds = comments.stream().map(Comment::getId).collect(Collectors.toList());
+            CompletableFuture<Map<Long, UserSummary>> users = parallelStages.fork("roots", "users",
+                    () -> userSummaryCache.getAll(userIds));
+            CompletableFuture<Set<Long>> liked = parallelStages.fork("roots", "liked",
+                    () -> selectLikedCommentIds(commentIds, currentUserId));
+            Map<Long, UserSummary> userMap = ParallelStages.join(users);
+            Set<Long> likedIds = ParallelStages.join(liked);
+            for (Comment comment : comments) {
+                CommentVO vo = convertToVO(comment);
+                fillUserInfo(vo, userMap);
+                vo.setIsLiked(likedIds.contains(vo.getId()));
+                voList.add(vo);
+            }
+        }
+        return CursorResult.build(voList, nextCursor, hasMore);
     }
 
     @Override
+    @Timed("rednote.service")
     public CursorResult<CommentVO> getReplies(Long rootCommentId, String cursor, int size) {
-        // 1. 解析游标
-        Long lastId = null;
-        if (cursor != null && !cursor.isEmpty()) {
-            try {
-                lastId = Long.parseLong(cursor);
-            } catch (NumberFormatException e) {
-                // 忽略错误游标
-            }
-        }
+        // 1. 解析游标 (created_at, id)
+        long[] keys = cursorCodec.decode(CursorCodec.Kind.REPLY, cursor);
 
         LambdaQueryWrapper<Comment> query = new LambdaQueryWrapper<>();
         query.eq(Comment::getRootParentId, rootCommentId);
 
-        // 排序：时间正序，ID正序
+        // 排序：时间正序，ID正序，与 idx_root_created (root_parent_id, created_at, id) 一致
         query.orderByAsc(Comment::getCreatedAt)
                 .orderByAsc(Comment::getId);
 
-        // 游标条件
-        if (lastId != null) {
-            query.gt(Comment::getId, lastId);
-            query.last("LIMIT " + (size + 1));
-        } else {
-            // 如果没有游标（第一页），我们需要跳过第一条（因为第一条是 Top Reply，已经在 Feed 中展示了）
-            // 所以我们需要查 size + 2 条：1条跳过 + size条数据 + 1条判断 hasMore
-            query.last("LIMIT " + (size + 2));
+        if (keys != null) {
+            query.apply(CursorCodec.after(false, "created_at", "id"), CursorCodec.timeOf(keys[0]), keys[1]);
         }
+        // 每一页都排除已经在 Feed 中展示过的 Top Reply (按根评论上的 top_reply_id 主键取)：
+        // 更早的回复晚提交时 Top Reply 会被替换，不一定落在第一页
+        query.apply("id <> COALESCE((SELECT t.top_reply_id FROM comments t WHERE t.id = {0}), 0)",
+                rootCommentId);
+        // 多查一条判断 hasMore
+        query.last("LIMIT " + (size + 1));
 
-        List<Comment> comments = list(query);
-
-        // 处理第一页跳过第一条的逻辑
-        if (lastId == null && !comments.isEmpty()) {
-            comments.remove(0);
-        }
+        List<Comment> comments = parallelStages.run("replies", "query", () -> list(query));
 
         // 处理 hasMore 和 nextCursor
         boolean hasMore = false;
@@ -97,11 +173,11 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
         if (comments.size() > size) {
             hasMore = true;
             comments.remove(comments.size() - 1);
+        }
+        if (!comments.isEmpty()) {
             Comment last = comments.get(comments.size() - 1);
-            nextCursor = String.valueOf(last.getId());
-        } else if (!comments.isEmpty()) {
-            Comment last = comments.get(comments.size() - 1);
-            nextCursor = String.valueOf(last.getId());
+            nextCursor = cursorCodec.encode(CursorCodec.Kind.REPLY,
+                    CursorCodec.timeKey(last.getCreatedAt()), last.getId());
         }
 
         if (comments.isEmpty()) {
@@ -110,100 +186,79 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
 
         List<CommentVO> voList = new ArrayList<>();
         Set<Long> userIds = comments.stream().map(Comment::getUserId).collect(Collectors.toSet());
+        List<Long> commentIds = comments.stream().map(Comment::getId).collect(Collectors.toList());
 
-        // 统一查询用户
-        Map<Long, User> userMap = userService.listByIds(userIds).stream()
-                .collect(Collectors.toMap(User::getId, u -> u));
-
+        // 用户 (走用户摘要缓存) 和整页的点赞状态 (一次 IN 查询) 并行查询
         Long currentUserId = UserContext.getUserId();
+        CompletableFuture<Map<Long, UserSummary>> users = parallelStages.fork("replies", "users",
+                () -> userSummaryCache.getAll(userIds));
+        CompletableFuture<Set<Long>> liked = parallelStages.fork("replies", "liked",
+                () -> selectLikedCommentIds(commentIds, currentUserId));
+        Map<Long, UserSummary> userMap = ParallelStages.join(users);
+        Set<Long> likedIds = ParallelStages.join(liked);
 
         for (Comment comment : comments) {
             CommentVO vo = convertToVO(comment);
             fillUserInfo(vo, userMap);
-            fillLikeStatus(vo, currentUserId);
+            vo.setIsLiked(likedIds.contains(vo.getId()));
             voList.add(vo);
         }
         return CursorResult.build(voList, nextCursor, hasMore);
     }
 
     @Override
+    @Timed("rednote.service")
     public CursorResult<CommentVO> getCommentFeed(Long postId, String cursor,
             int size) {
-        // 1. 解析游标
-        Integer lastLikeCount = null;
-        Long lastId = null;
-        if (cursor != null && !cursor.isEmpty()) {
-            String[] parts = cursor.split("-");
-            if (parts.length == 2) {
-                lastLikeCount = Integer.parseInt(parts[0]);
-                lastId = Long.parseLong(parts[1]);
-            }
-        }
+        // 1. 解析游标 (like_count, id)
+        long[] keys = cursorCodec.decode(CursorCodec.Kind.COMMENT_FEED, cursor);
+        Integer lastLikeCount = keys == null ? null : (int) keys[0];
+        Long lastId = keys == null ? null : keys[1];
 
-        // 2. 联表查询 (包含用户信息和点赞状态)
+        // 2. 热门帖子在内存排行索引上定位这一页，冷门帖子联表查询 (包含点赞状态，用户信息后面走缓存填充)
         Long currentUserId = UserContext.getUserId();
-        List<CommentVO> voList = baseMapper.selectCommentFeed(postId, lastLikeCount, lastId, size + 1, currentUserId);
+        List<HotCommentIndex.Ranked> ranked = hotCommentIndex.page(postId, lastLikeCount, lastId, size + 1);
+        List<CommentVO> voList = ranked != null
+                ? parallelStages.run("comments", "query", () -> selectRankedPage(ranked, currentUserId))
+                : parallelStages.run("comments", "query", () -> baseMapper.selectCommentFeed(
+                        postId, lastLikeCount, lastId, size + 1, currentUserId));
 
         // 3. 处理游标
         boolean hasMore = false;
-        String nextCursor = null;
         if (voList.size() > size) {
             hasMore = true;
             voList.remove(voList.size() - 1);
-            CommentVO last = voList.get(voList.size() - 1);
-            nextCursor = last.getLikeCount() + "-" + last.getId();
-        } else if (!voList.isEmpty()) {
-            CommentVO last = voList.get(voList.size() - 1);
-            nextCursor = last.getLikeCount() + "-" + last.getId();
         }
-
-        // 4. 填充 Top Reply 和 Reply Count
+        String nextCursor = null;
         if (!voList.isEmpty()) {
-            List<Long> rootIds = voList.stream().map(CommentVO::getId).collect(Collectors.toList());
-
-            // 获取帖子作者ID
-            PostDetailVO postDetail = postService.getPostDetailById(postId);
-            Long postAuthorId = postDetail != null ? postDetail.getAuthorId() : null;
-
-            Map<Long, Comment> topReplyMap = new HashMap<>();
-            Map<Long, Long> replyCountMap = new HashMap<>();
-            Set<Long> topReplyUserIds = new java.util.HashSet<>();
-
-            if (!rootIds.isEmpty()) {
-                List<Comment> topReplies = baseMapper.selectTopReplies(rootIds, postAuthorId);
-                for (Comment reply : topReplies) {
-                    topReplyMap.put(reply.getRootParentId(), reply);
-                    topReplyUserIds.add(reply.getUserId());
-                }
+            // 游标里的点赞数必须是排序时用的值：索引上是排名点赞数，查库时是库里的值
+            int last = voList.size() - 1;
+            long lastLikes = ranked != null ? ranked.get(last).likeCount() : voList.get(last).getLikeCount();
+            nextCursor = cursorCodec.encode(CursorCodec.Kind.COMMENT_FEED, lastLikes, voList.get(last).getId());
+        }
 
-                List<Map<String, Object>> counts = baseMapper.selectReplyCounts(rootIds);
-                for (Map<String, Object> map : counts) {
-                    Long rootId = ((Number) map.get("rootId")).longValue();
-                    Long count = ((Number) map.get("count")).longValue();
-                    replyCountMap.put(rootId, count);
+        // 4. Top Reply、回复数和点赞状态已随一级评论一起查出，剩下的用户信息依赖本页结果，无可并行的阶段
+        if (!voList.isEmpty()) {
+            // 批量查询一级评论和 Top Reply 的用户信息 (走用户摘要缓存)
+            Set<Long> userIds = new HashSet<>();
+            for (CommentVO vo : voList) {
+                userIds.add(vo.getUserId());
+                if (vo.getTopReply() != null) {
+                    userIds.add(vo.getTopReply().getUserId());
                 }
             }
-
-            // 批量查询 Top Reply 的用户信息
-            Map<Long, User> userMap = new HashMap<>();
-            if (!topReplyUserIds.isEmpty()) {
-                userMap = userService.listByIds(topReplyUserIds).stream()
-                        .collect(Collectors.toMap(User::getId, u -> u));
-            }
+            Map<Long, UserSummary> userMap = parallelStages.run("comments", "users",
+                    () -> userSummaryCache.getAll(userIds));
 
             for (CommentVO vo : voList) {
-                // 填充 Reply Count
-                vo.setReplyCount(replyCountMap.getOrDefault(vo.getId(), 0L));
+                vo.setLikeCount(likeCounterAggregator.overlayCommentLikeCount(vo.getId(), vo.getLikeCount()));
+                fillUserInfo(vo, userMap);
 
-                // 填充 Top Reply
-                Comment topReply = topReplyMap.get(vo.getId());
+                CommentVO topReply = vo.getTopReply();
                 if (topReply != null) {
-                    CommentVO topReplyVO = convertToVO(topReply);
-                    // 填充 Top Reply 的用户信息
-                    fillUserInfo(topReplyVO, userMap);
-                    // 填充 Top Reply 的点赞状态
-                    fillLikeStatus(topReplyVO, currentUserId);
-                    vo.setTopReply(topReplyVO);
+                    topReply.setLikeCount(likeCounterAggregator.overlayCommentLikeCount(
+                            topReply.getId(), topReply.getLikeCount()));
+                    fillUserInfo(topReply, userMap);
                 }
             }
         }
@@ -212,26 +267,16 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
     }
 
     @Override
+    @Transactional
     public boolean likeComment(Long commentId, boolean isLike) {
         Long userId = UserContext.getUserId();
         if (isLike) {
-            // 点赞
-            LambdaQueryWrapper<CommentLike> query = new LambdaQueryWrapper<>();
-            query.eq(CommentLike::getCommentId, commentId)
-                    .eq(CommentLike::getUserId, userId);
-            if (commentLikeMapper.selectCount(query) > 0) {
-                return true;
+            // 点赞：INSERT IGNORE，重复点赞影响行数为 0 (由 uk_user_comment 保证)
+            if (commentLikeMapper.insertIgnore(userId, commentId) > 0) {
+                // 点赞数事务提交后记在内存，由 LikeCounterAggregator 批量写回
+                likeCounterAggregator.incrementComment(commentId, 1);
+                hotCommentIndex.onLike(commentId, 1);
             }
-
-            CommentLike commentLike = new CommentLike();
-            commentLike.setCommentId(commentId);
-            commentLike.setUserId(userId);
-            commentLike.setCreatedAt(LocalDateTime.now());
-            commentLikeMapper.insert(commentLike);
-
-            baseMapper.update(null, new LambdaUpdateWrapper<Comment>()
-                    .eq(Comment::getId, commentId)
-                    .setSql("like_count = like_count + 1"));
         } else {
             // 取消点赞
             LambdaQueryWrapper<CommentLike> query = new LambdaQueryWrapper<>();
@@ -240,16 +285,15 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
             int deleted = commentLikeMapper.delete(query);
 
             if (deleted > 0) {
-                baseMapper.update(null,
-                        new LambdaUpdateWrapper<Comment>()
-                                .eq(Comment::getId, commentId)
-                                .setSql("like_count = like_count - 1"));
+                likeCounterAggregator.incrementComment(commentId, -1);
+                hotCommentIndex.onLike(commentId, -1);
             }
         }
         return true;
     }
 
     @Override
+    @Timed("rednote.service")
     public CommentVO publishComment(AddCommentDTO addCommentDTO, MultipartFile file) {
         Comment comment = new Comment();
         comment.setPostId(addCommentDTO.getPostId());
@@ -288,17 +332,18 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
 
         if (file != null && !file.isEmpty()) {
             try {
-                String url = aliOssUtil.upload(file);
+                String url = uploadUtil.upload(file);
                 comment.setImageUrl(url);
 
                 // 获取图片宽高
                 if (comment.getImageWidth() == null || comment.getImageHeight() == null || comment.getImageWidth() == 0
                         || comment.getImageHeight() == 0) {
-                    try {
-                        BufferedImage image = ImageIO.read(file.getInputStream());
+                    // 只读文件头，不解码整张图；按 EXIF 方向取实际显示的宽高
+                    try (InputStream in = file.getInputStream()) {
+                        ImageProbe.ImageInfo image = ImageProbe.probe(in);
                         if (image != null) {
-                            comment.setImageWidth(image.getWidth());
-                            comment.setImageHeight(image.getHeight());
+                            comment.setImageWidth(image.displayWidth());
+                            comment.setImageHeight(image.displayHeight());
                         }
                     } catch (Exception e) {
                         e.printStackTrace();
@@ -308,48 +353,102 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
                 throw new RuntimeException("图片上传失败", e);
             }
         }
-        save(comment);
+        // 评论入库、帖子评论数 +1、根评论回复数 / Top Reply 放在同一个事务里 (图片上传在事务外，不占用连接)
+        transactionTemplate.executeWithoutResult(status -> {
+            save(comment);
+            postService.update(new LambdaUpdateWrapper<Post>()
+                    .eq(Post::getId, comment.getPostId())
+                    .setSql("comment_count = comment_count + 1"));
+            if (comment.getRootParentId() != null) {
+                baseMapper.incrReplyStats(comment.getRootParentId(), comment.getId());
+            }
+        });
+        // 评论数变了，清掉帖子详情缓存
+        postDetailCache.invalidate(comment.getPostId());
+        if (comment.getRootParentId() == null) {
+            hotCommentIndex.onComment(comment.getPostId(), comment.getId());
+        }
+
+        // 后台生成评论图片的缩略图和详情尺寸，完成后写回
+        if (comment.getImageUrl() != null) {
+            Long commentId = comment.getId();
+            imageRenditionService.submit(imageRenditionService.spool(file),
+                    renditions -> updateImageRenditions(commentId, renditions.getFirst()));
+        }
 
         // 转换为VO并填充用户信息
         CommentVO vo = convertToVO(comment);
-        User user = userService.getById(comment.getUserId());
+        UserSummary user = userSummaryCache.get(comment.getUserId());
         if (user != null) {
-            vo.setNickname(user.getNickname());
-            vo.setAvatarUrl(user.getAvatarUrl());
+            vo.setNickname(user.nickname());
+            vo.setAvatarUrl(user.avatarUrl());
         }
         vo.setIsLiked(false); // 新评论肯定没点赞
 
         return vo;
     }
 
+    /**
+     * 按排行索引给出的 ID 取评论，还原索引顺序
+     * 评论不会被删除，正常情况下每个 ID 都能查到；万一缺了就截断在缺的位置，保证和 ranked 下标一一对应
+     */
+    private List<CommentVO> selectRankedPage(List<HotCommentIndex.Ranked> ranked, Long currentUserId) {
+        if (ranked.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, CommentVO> byId = baseMapper.selectCommentFeedByIds(
+                        ranked.stream().map(HotCommentIndex.Ranked::id).collect(Collectors.toList()), currentUserId)
+                .stream().collect(Collectors.toMap(CommentVO::getId, vo -> vo));
+        List<CommentVO> voList = new ArrayList<>(ranked.size());
+        for (HotCommentIndex.Ranked item : ranked) {
+            CommentVO vo = byId.get(item.id());
+            if (vo == null) {
+                break;
+            }
+            voList.add(vo);
+        }
+        return voList;
+    }
+
     private CommentVO convertToVO(Comment comment) {
-        CommentVO vo = new CommentVO();
-        vo.setId(comment.getId());
-        vo.setPostId(comment.getPostId());
-        vo.setUserId(comment.getUserId());
-        vo.setContent(comment.getContent());
-        vo.setLikeCount(comment.getLikeCount());
-        vo.setCreatedAt(comment.getCreatedAt());
-        vo.setImageUrl(comment.getImageUrl());
-        vo.setImageWidth(comment.getImageWidth());
-        vo.setImageHeight(comment.getImageHeight());
+        CommentVO vo = commentConverter.toVO(comment);
+        vo.setLikeCount(likeCounterAggregator.overlayCommentLikeCount(comment.getId(), comment.getLikeCount()));
         return vo;
     }
 
+    private void updateImageRenditions(Long commentId, ImageRendition rendition) {
+        if (rendition == null) {
+            return;
+        }
+        update(new LambdaUpdateWrapper<Comment>()
+                .eq(Comment::getId, commentId)
+                .set(Comment::getImageThumbUrl, rendition.getThumb())
+                .set(Comment::getImageDetailUrl, rendition.getDetail()));
+    }
+
     private void fillUserInfo(CommentVO vo,
-            Map<Long, User> userMap) {
-        User user = userMap.get(vo.getUserId());
+            Map<Long, UserSummary> userMap) {
+        UserSummary user = userMap.get(vo.getUserId());
         if (user != null) {
-            vo.setNickname(user.getNickname());
-            vo.setAvatarUrl(user.getAvatarUrl());
+            vo.setNickname(user.nickname());
+            vo.setAvatarUrl(user.avatarUrl());
         }
     }
 
-    private void fillLikeStatus(CommentVO vo, Long currentUserId) {
-        // 查询是否点赞
+    /**
+     * 批量查询当前用户点赞过的评论ID
+     * 一页评论只走一次 comment_likes(user_id, comment_id) 上的 IN 查询，避免逐条 COUNT
+     */
+    private Set<Long> selectLikedCommentIds(Collection<Long> commentIds, Long currentUserId) {
+        if (currentUserId == null || commentIds == null || commentIds.isEmpty()) {
+            return Collections.emptySet();
+        }
         LambdaQueryWrapper<CommentLike> query = new LambdaQueryWrapper<>();
-        query.eq(CommentLike::getCommentId, vo.getId())
-                .eq(CommentLike::getUserId, currentUserId);
-        vo.setIsLiked(commentLikeMapper.selectCount(query) > 0);
+        query.select(CommentLike::getCommentId)
+                .eq(CommentLike::getUserId, currentUserId)
+                .in(CommentLike::getCommentId, commentIds);
+        return commentLikeMapper.selectList(query).stream()
+                .map(CommentLike::getCommentId)
+                .collect(Collectors.toSet());
     }
 }
\ No newline at end of file
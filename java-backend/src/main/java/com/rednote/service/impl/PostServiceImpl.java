@@ -1,178 +1,402 @@
 package com.rednote.service.impl;
 
-import cn.hutool.core.bean.BeanUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.rednote.cache.FeedItem;
+import com.rednote.cache.FeedTimeline;
+import com.rednote.cache.PostDetailCache;
+import com.rednote.cache.UserSummary;
+import com.rednote.cache.UserSummaryCache;
+import com.rednote.common.CursorCodec;
 import com.rednote.common.CursorResult;
+import com.rednote.common.ParallelStages;
 import com.rednote.common.UserContext;
+import com.rednote.converter.PostConverter;
+import com.rednote.counter.LikeCounterAggregator;
+import com.rednote.entity.ImageRendition;
 import com.rednote.entity.Post;
-import com.rednote.entity.User;
 import com.rednote.entity.dto.PostPublishDTO;
 import com.rednote.entity.vo.PostDetailVO;
 import com.rednote.entity.vo.PostInfoVO;
+import com.rednote.entity.vo.PostStatusVO;
 import com.rednote.entity.vo.PostUploadVO;
 import com.rednote.mapper.PostMapper;
+import com.rednote.media.ImageRenditionService;
 import com.rednote.service.PostService;
-import com.rednote.service.UserService;
-import com.rednote.utils.AliOssUtil;
+import com.rednote.storage.SpooledFile;
+import com.rednote.utils.ImageProbe;
+import com.rednote.utils.UploadUtil;
+import io.micrometer.core.annotation.Timed;
 import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 public class PostServiceImpl extends ServiceImpl<PostMapper, Post> implements PostService {
 
     @Resource
-    private UserService userService;
+    private UserSummaryCache userSummaryCache;
 
     @Resource
-    private AliOssUtil aliOssUtil;
+    private UploadUtil uploadUtil;
 
     @Resource
     private com.rednote.mapper.PostLikeMapper postLikeMapper;
 
+    @Resource
+    private LikeCounterAggregator likeCounterAggregator;
+
+    @Resource
+    private PostDetailCache postDetailCache;
+
+    @Resource
+    private FeedTimeline feedTimeline;
+
+    @Resource
+    private ImageRenditionService imageRenditionService;
+
+    @Resource
+    private ThreadPoolTaskExecutor publishExecutor;
+
+    @Resource
+    private PostConverter postConverter;
+
+    @Resource
+    private CursorCodec cursorCodec;
+
+    @Resource
+    private ParallelStages parallelStages;
+
     @Override
+    @Timed("rednote.service")
     public PostDetailVO publishPost(PostPublishDTO postPublishDTO, MultipartFile[] files) {
         Post post = new Post();
         post.setTitle(postPublishDTO.getTitle());
         post.setContent(postPublishDTO.getContent());
         post.setUserId(UserContext.getUserId());
-        post.setImages(aliOssUtil.uploadImages(files));
+        post.setImages(uploadUtil.uploadImages(files));
         post.setImgHeight(postPublishDTO.getImgHeight());
         post.setImgWidth(postPublishDTO.getImgWidth());
+        post.setStatus(Post.STATUS_PUBLISHED);
+        // 客户端没传封面宽高时，从第一张图的文件头里读
+        if (missingCoverSize(post) && files.length > 0) {
+            fillCoverSize(post, probe(files[0]));
+        }
         if (!save(post)) {
             throw new RuntimeException("发布失败");
         }
-        return BeanUtil.copyProperties(post, PostDetailVO.class);
+        feedTimeline.append(post);
+
+        // 后台生成缩略图等尺寸版本，完成后写回帖子
+        Long postId = post.getId();
+        imageRenditionService.submit(imageRenditionService.spool(files),
+                renditions -> updateImageRenditions(postId, renditions));
+        return postConverter.toDetailVO(post);
+    }
+
+    private void updateImageRenditions(Long postId, List<ImageRendition> renditions) {
+        Post update = new Post();
+        update.setId(postId);
+        update.setImageRenditions(renditions);
+        // 走 updateById，顺带清掉详情缓存、刷新时间线里的封面
+        updateById(update);
     }
 
     @Override
-    public CursorResult<PostInfoVO> getFeedList(Long lastId, int size) {
-        // 1. 构造查询条件
-        LambdaQueryWrapper<Post> query = new LambdaQueryWrapper<>();
+    @Timed("rednote.service")
+    public PostStatusVO publishPostAsync(PostPublishDTO postPublishDTO, MultipartFile[] files) {
+        // 1. 请求结束后 multipart 临时文件会被删掉，先复制到本地临时目录
+        List<SpooledFile> spooled = uploadUtil.spool(files != null ? files : new MultipartFile[0]);
+
+        // 2. 先落一条"处理中"的帖子拿到ID (Feed 和详情都不会查到它)
+        Post post = new Post();
+        post.setTitle(postPublishDTO.getTitle());
+        post.setContent(postPublishDTO.getContent());
+        post.setUserId(UserContext.getUserId());
+        post.setImages(new ArrayList<>());
+        post.setImgHeight(postPublishDTO.getImgHeight());
+        post.setImgWidth(postPublishDTO.getImgWidth());
+        post.setStatus(Post.STATUS_PENDING);
+        if (missingCoverSize(post) && !spooled.isEmpty()) {
+            fillCoverSize(post, probe(spooled.getFirst()));
+        }
+        if (!save(post)) {
+            spooled.forEach(SpooledFile::deleteQuietly);
+            throw new RuntimeException("发布失败");
+        }
+
+        // 3. 上传图片、更新帖子放到后台线程池
+        Long postId = post.getId();
+        try {
+            publishExecutor.execute(() -> completePublish(postId, spooled));
+        } catch (RejectedExecutionException e) {
+            removeById(postId);
+            spooled.forEach(SpooledFile::deleteQuietly);
+            throw new RuntimeException("发布人数过多，请稍后重试");
+        }
+        return new PostStatusVO(postId, statusName(Post.STATUS_PENDING));
+    }
 
-        // 核心逻辑：ID 倒序 (最新的在上面)
-        query.orderByDesc(Post::getId);
+    /**
+     * 后台完成异步发布：上传图片 -> 改为已发布 -> 进入时间线 -> 生成尺寸版本
+     */
+    private void completePublish(Long postId, List<SpooledFile> spooled) {
+        boolean handedOff = false;
+        try {
+            Post update = new Post();
+            update.setId(postId);
+            update.setImages(uploadUtil.uploadImages(spooled));
+            update.setStatus(Post.STATUS_PUBLISHED);
+            fillCoverUrl(update);
+            baseMapper.updateById(update);
+            feedTimeline.append(getById(postId));
 
-        // 如果传了 lastId，说明是加载更多，要查 ID 比这个小的
-        // SQL: WHERE id < {lastId}
-        if (lastId != null) {
-            query.lt(Post::getId, lastId);
+            // 临时文件交给尺寸版本生成，由它负责删除
+            List<Path> paths = spooled.stream().map(SpooledFile::path).collect(Collectors.toList());
+            imageRenditionService.submit(paths, renditions -> updateImageRenditions(postId, renditions));
+            handedOff = true;
+        } catch (Exception e) {
+            log.warn("Async publish of post {} failed", postId, e);
+            Post failed = new Post();
+            failed.setId(postId);
+            failed.setStatus(Post.STATUS_FAILED);
+            baseMapper.updateById(failed);
+        } finally {
+            if (!handedOff) {
+                spooled.forEach(SpooledFile::deleteQuietly);
+            }
         }
+    }
 
-        // 限制条数：为了判断“是否还有更多”，我们故意多查 1 条
-        query.last("LIMIT " + (size + 1));
+    @Override
+    public PostStatusVO getPublishStatus(Long postId) {
+        Post post = lambdaQuery()
+                .select(Post::getId, Post::getUserId, Post::getStatus)
+                .eq(Post::getId, postId)
+                .one();
+        if (post == null || !post.getUserId().equals(UserContext.getUserId())) {
+            return null;
+        }
+        return new PostStatusVO(post.getId(), statusName(post.getStatus()));
+    }
 
-        // 2. 执行查询
-        List<Post> posts = list(query);
+    private static String statusName(Integer status) {
+        if (status == null || status == Post.STATUS_PUBLISHED) {
+            return "PUBLISHED";
+        }
+        return status == Post.STATUS_PENDING ? "PENDING" : "FAILED";
+    }
 
-        // 3. 处理游标和 hasMore
+    private static boolean missingCoverSize(Post post) {
+        return post.getImgWidth() == null || post.getImgWidth() == 0
+                || post.getImgHeight() == null || post.getImgHeight() == 0;
+    }
+
+    private static void fillCoverSize(Post post, ImageProbe.ImageInfo cover) {
+        if (cover != null) {
+            post.setImgWidth(cover.displayWidth());
+            post.setImgHeight(cover.displayHeight());
+        }
+    }
+
+    /**
+     * 写库前维护 cover_url：有 Feed 尺寸版本时用它，否则用第一张原图
+     * Feed 查询只读这一列，不用再解析整个图片 JSON
+     */
+    private static void fillCoverUrl(Post post) {
+        List<ImageRendition> renditions = post.getImageRenditions();
+        if (renditions != null && !renditions.isEmpty() && renditions.getFirst() != null
+                && renditions.getFirst().getFeed() != null) {
+            post.setCoverUrl(renditions.getFirst().getFeed());
+        } else if (post.getCoverUrl() == null && post.getImages() != null && !post.getImages().isEmpty()) {
+            post.setCoverUrl(post.getImages().getFirst());
+        }
+    }
+
+    private static ImageProbe.ImageInfo probe(MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            return ImageProbe.probe(in);
+        } catch (Exception e) {
+            // 读不出宽高不影响发布
+            return null;
+        }
+    }
+
+    private static ImageProbe.ImageInfo probe(SpooledFile file) {
+        try (InputStream in = file.open()) {
+            return ImageProbe.probe(in);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    @Override
+    @Timed("rednote.service")
+    public CursorResult<PostInfoVO> getFeedList(String cursor, int size) {
+        long[] keys = cursorCodec.decode(CursorCodec.Kind.POST_FEED, cursor);
+        Long lastId = keys == null ? null : keys[0];
+
+        // 1. 游标落在内存时间线窗口内时直接读内存，否则查库
+        List<FeedItem> items = feedTimeline.page(lastId, size);
+        if (items == null) {
+            items = parallelStages.run("feed", "query", () -> queryFeedPage(lastId, size));
+        }
+        // 这里的 list 可能是时间线窗口的视图，复制一份再裁剪
+        items = new ArrayList<>(items);
+
+        // 2. 处理游标和 hasMore
         boolean hasMore = false;
         Long nextCursor = null;
 
-        if (posts.size() > size) {
+        if (items.size() > size) {
             hasMore = true;
             // 把多查的那一条删掉，不返回给前端
-            posts.remove(posts.size() - 1);
+            items.remove(items.size() - 1);
             // 下一次的游标，就是当前列表最后一条的 ID
-            nextCursor = posts.get(posts.size() - 1).getId();
-        } else if (!posts.isEmpty()) {
-            nextCursor = posts.get(posts.size() - 1).getId();
+            nextCursor = items.get(items.size() - 1).getId();
+        } else if (!items.isEmpty()) {
+            nextCursor = items.get(items.size() - 1).getId();
         }
 
-        // 4. 转换为 PostInfoVO 并填充用户信息
+        // 3. 转换为 PostInfoVO 并填充用户信息
         List<PostInfoVO> voList = new ArrayList<>();
-        if (!posts.isEmpty()) {
+        if (!items.isEmpty()) {
             // 收集所有 userId
-            Set<Long> userIds = posts.stream().map(Post::getUserId).collect(Collectors.toSet());
-            // 批量查询用户
-            List<User> users = userService.listByIds(userIds);
-            // 转为 Map 方便查找
-            Map<Long, User> userMap = users.stream().collect(Collectors.toMap(User::getId, u -> u));
-
-            // 批量查询当前用户是否点赞
+            Set<Long> userIds = items.stream().map(FeedItem::getUserId).collect(Collectors.toSet());
+            List<Long> postIds = items.stream().map(FeedItem::getId).collect(Collectors.toList());
+            // 用户信息 (走用户摘要缓存，热门作者不查库) 和当前用户的点赞状态互不依赖，并行查询
             Long currentUserId = UserContext.getUserId();
-            Set<Long> likedPostIds = new java.util.HashSet<>();
-            if (currentUserId != null) {
-                List<Long> currentBatchPostIds = posts.stream().map(Post::getId).collect(Collectors.toList());
-                if (!currentBatchPostIds.isEmpty()) {
-                    LambdaQueryWrapper<com.rednote.entity.PostLike> likeQuery = new LambdaQueryWrapper<>();
-                    likeQuery.eq(com.rednote.entity.PostLike::getUserId, currentUserId)
-                            .in(com.rednote.entity.PostLike::getPostId, currentBatchPostIds);
-                    List<com.rednote.entity.PostLike> likes = postLikeMapper.selectList(likeQuery);
-                    likedPostIds = likes.stream().map(com.rednote.entity.PostLike::getPostId)
-                            .collect(Collectors.toSet());
-                }
-            }
-
-            for (Post post : posts) {
-                PostInfoVO vo = new PostInfoVO();
-                vo.setId(post.getId());
-                vo.setTitle(post.getTitle());
-                vo.setLikeCount(post.getLikeCount());
-                vo.setIsLiked(likedPostIds.contains(post.getId()));
-
-                // 设置第一张图片
-                List<String> images = post.getImages();
-                if (images != null && !images.isEmpty()) {
-                    vo.setImage(images.getFirst());
-                }
+            CompletableFuture<Map<Long, UserSummary>> users = parallelStages.fork("feed", "users",
+                    () -> userSummaryCache.getAll(userIds));
+            CompletableFuture<Set<Long>> liked = parallelStages.fork("feed", "liked",
+                    () -> selectLikedPostIds(postIds, currentUserId));
+            Map<Long, UserSummary> userMap = ParallelStages.join(users);
+            Set<Long> likedPostIds = ParallelStages.join(liked);
 
-                // 设置宽高
-                vo.setWidth(post.getImgWidth());
-                vo.setHeight(post.getImgHeight());
+            for (FeedItem item : items) {
+                // id、标题、封面图、宽高
+                PostInfoVO vo = postConverter.toInfoVO(item);
+                vo.setLikeCount(likeCounterAggregator.overlayPostLikeCount(item.getId(), item.getLikeCount()));
+                vo.setIsLiked(likedPostIds.contains(item.getId()));
 
                 // 设置用户信息
-                User user = userMap.get(post.getUserId());
+                UserSummary user = userMap.get(item.getUserId());
                 if (user != null) {
-                    vo.setNickname(user.getNickname());
-                    vo.setAvatarUrl(user.getAvatarUrl());
+                    vo.setNickname(user.nickname());
+                    vo.setAvatarUrl(user.avatarUrl());
                 }
 
                 voList.add(vo);
             }
         }
 
-        return CursorResult.build(voList, nextCursor != null ? String.valueOf(nextCursor) : null, hasMore);
+        return CursorResult.build(voList,
+                nextCursor != null ? cursorCodec.encode(CursorCodec.Kind.POST_FEED, nextCursor) : null, hasMore);
+    }
+
+    /**
+     * 时间线窗口覆盖不到时查库
+     */
+    private List<FeedItem> queryFeedPage(Long lastId, int size) {
+        // 只查卡片用到的列 (不读正文和图片 JSON)，ID 倒序，只查已发布的
+        // 为了判断“是否还有更多”，故意多查 1 条
+        return baseMapper.selectFeedPage(lastId, size + 1);
+    }
+
+    /**
+     * 批量查询当前用户点赞过的帖子ID (一次 IN 查询)
+     */
+    private Set<Long> selectLikedPostIds(List<Long> postIds, Long currentUserId) {
+        if (currentUserId == null || postIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        LambdaQueryWrapper<com.rednote.entity.PostLike> likeQuery = new LambdaQueryWrapper<>();
+        likeQuery.select(com.rednote.entity.PostLike::getPostId)
+                .eq(com.rednote.entity.PostLike::getUserId, currentUserId)
+                .in(com.rednote.entity.PostLike::getPostId, postIds);
+        return postLikeMapper.selectList(likeQuery).stream()
+                .map(com.rednote.entity.PostLike::getPostId)
+                .collect(Collectors.toSet());
     }
 
     @Override
+    @Timed("rednote.service")
     public PostDetailVO getPostDetailById(Long id) {
+        // 与用户无关的部分走缓存 (查库时不带 userId)
+        PostDetailVO detail = postDetailCache.get(id, postId -> baseMapper.selectPostDetail(postId, null));
+        if (detail == null) {
+            return null;
+        }
+        detail.setLikeCount(likeCounterAggregator.overlayPostLikeCount(id, detail.getLikeCount()));
+
+        // 作者昵称头像以用户缓存为准 (改头像后不用等详情缓存过期)
+        UserSummary author = userSummaryCache.get(detail.getAuthorId());
+        if (author != null) {
+            detail.setAuthorName(author.nickname());
+            detail.setAuthorAvatar(author.avatarUrl());
+        }
+
+        // 叠加当前用户的点赞状态 (走 uk_user_post 唯一索引)
         Long currentUserId = UserContext.getUserId();
-        return baseMapper.selectPostDetail(id, currentUserId);
+        boolean isLiked = false;
+        if (currentUserId != null) {
+            LambdaQueryWrapper<com.rednote.entity.PostLike> likeQuery = new LambdaQueryWrapper<>();
+            likeQuery.eq(com.rednote.entity.PostLike::getUserId, currentUserId)
+                    .eq(com.rednote.entity.PostLike::getPostId, id);
+            isLiked = postLikeMapper.selectCount(likeQuery) > 0;
+        }
+        detail.setIsLiked(isLiked);
+        return detail;
+    }
+
+    @Override
+    public boolean save(Post entity) {
+        fillCoverUrl(entity);
+        return super.save(entity);
     }
 
     @Override
+    public boolean updateById(Post entity) {
+        fillCoverUrl(entity);
+        boolean updated = super.updateById(entity);
+        // 帖子被编辑后清掉详情缓存，并刷新 Feed 时间线中的摘要
+        if (entity.getId() != null) {
+            postDetailCache.invalidate(entity.getId());
+            if (updated) {
+                feedTimeline.replace(getById(entity.getId()));
+            }
+        }
+        return updated;
+    }
+
+    @Override
+    @Transactional
     public boolean likePost(Long postId, boolean isLike) {
         Long userId = UserContext.getUserId();
         if (isLike) {
             // 点赞
-            // 1. 检查是否已经点赞
-            LambdaQueryWrapper<com.rednote.entity.PostLike> query = new LambdaQueryWrapper<>();
-            query.eq(com.rednote.entity.PostLike::getPostId, postId)
-                    .eq(com.rednote.entity.PostLike::getUserId, userId);
-            if (postLikeMapper.selectCount(query) > 0) {
-                return true; // 已经点赞过了
-            }
+            // 1. INSERT IGNORE 插入点赞记录，重复点赞影响行数为 0 (由 uk_user_post 保证)
+            int inserted = postLikeMapper.insertIgnore(userId, postId);
 
-            // 2. 插入点赞记录
-            com.rednote.entity.PostLike postLike = new com.rednote.entity.PostLike();
-            postLike.setPostId(postId);
-            postLike.setUserId(userId);
-            postLike.setCreatedAt(java.time.LocalDateTime.now());
-            postLikeMapper.insert(postLike);
-
-            // 3. 更新帖子点赞数
-            // update posts set like_count = like_count + 1 where id = postId
-            baseMapper.update(null, new com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper<Post>()
-                    .eq(Post::getId, postId)
-                    .setSql("like_count = like_count + 1"));
+            // 2. 只有真正插入时才加点赞数，事务提交后由 LikeCounterAggregator 批量写回
+            if (inserted > 0) {
+                likeCounterAggregator.incrementPost(postId, 1);
+            }
         } else {
             // 取消点赞
             // 1. 删除点赞记录
@@ -182,10 +406,8 @@ public class PostServiceImpl extends ServiceImpl<PostMapper, Post> implements Po
             int deleted = postLikeMapper.delete(query);
 
             if (deleted > 0) {
-                // 2. 更新帖子点赞数
-                baseMapper.update(null, new com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper<Post>()
-                        .eq(Post::getId, postId)
-                        .setSql("like_count = like_count - 1"));
+                // 2. 点赞数减一 (写回同上)
+                likeCounterAggregator.incrementPost(postId, -1);
             }
         }
         return true;
@@ -1,13 +1,14 @@
 package com.rednote.service.impl;
 
-import cn.hutool.core.bean.BeanUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.rednote.cache.UserSummaryCache;
+import com.rednote.converter.UserConverter;
 import com.rednote.entity.User;
 import com.rednote.entity.vo.UserInfoVO;
 import com.rednote.mapper.UserMapper;
 import com.rednote.service.UserService;
-import com.rednote.utils.AliOssUtil;
+import com.rednote.utils.UploadUtil;
 import jakarta.annotation.Resource;
 import org.mindrot.jbcrypt.BCrypt;
 import org.springframework.stereotype.Service;
@@ -17,7 +18,13 @@ import org.springframework.web.multipart.MultipartFile;
 public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements UserService {
 
     @Resource
-    private AliOssUtil aliOssUtil;
+    private UploadUtil uploadUtil;
+
+    @Resource
+    private UserSummaryCache userSummaryCache;
+
+    @Resource
+    private UserConverter userConverter;
 
     @Override
     public UserInfoVO register(String email, String password, String nickname) {
@@ -41,7 +48,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         // 4. 保存到数据库
         save(user);
 
-        return BeanUtil.copyProperties(user, UserInfoVO.class);
+        return userConverter.toInfoVO(user);
     }
 
     @Override
@@ -63,15 +70,15 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             throw new RuntimeException("密码错误");
         }
 
-        // 使用hutool将User转为UserInfoVO
-        return BeanUtil.copyProperties(user, UserInfoVO.class);
+        // User 转为 UserInfoVO (不含密码哈希)
+        return userConverter.toInfoVO(user);
     }
 
     @Override
     public String uploadAvatar(MultipartFile avatar, Long userId) {
         String avatarUrl;
         // 1. 上传文件到 OSS
-        avatarUrl = aliOssUtil.upload(avatar);
+        avatarUrl = uploadUtil.upload(avatar);
 
         // 2. 使用 MyBatis-Plus 更新数据库
         // update user set avatar = {avatarUrl} where id = {userId}
@@ -83,7 +90,16 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         if (!isSuccess) {
             throw new RuntimeException("更新用户头像失败");
         }
+        userSummaryCache.invalidate(userId);
 
         return avatarUrl;
     }
+
+    @Override
+    public boolean updateById(User entity) {
+        boolean updated = super.updateById(entity);
+        // 修改用户信息 (昵称/头像) 后清掉用户摘要缓存
+        userSummaryCache.invalidate(entity.getId());
+        return updated;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.rednote.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 本地磁盘实现：不依赖云服务，用于离线压测、CI 和本地开发
+ * 目录沿用 key 中的 yyyy/MM/dd 分片，写入先落临时文件再原子改名，读到的永远是完整文件
+ */
+public class LocalDiskStorageService implements StorageService {
+
+    // 每次 transferFrom 最多搬运的字节数
+    private static final long CHUNK_SIZE = 1024 * 1024;
+
+    private final Path root;
+
+    private final String baseUrl;
+
+    public LocalDiskStorageService(Path root, String baseUrl) {
+        this.root = root.toAbsolutePath().normalize();
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public void put(String key, InputStream in, long size, String contentType) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path tmp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try (ReadableByteChannel source = Channels.newChannel(in);
+             FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            // 流式写入，不在堆上攒整个文件；源是非文件通道时读到末尾返回 0
+            long position = 0;
+            long transferred;
+            while ((transferred = channel.transferFrom(source, position, CHUNK_SIZE)) > 0) {
+                position += transferred;
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public void delete(List<String> keys) {
+        for (String key : keys) {
+            try {
+                Files.deleteIfExists(resolve(key));
+            } catch (IOException e) {
+                // 删除失败不影响主流程
+            }
+        }
+    }
+
+    @Override
+    public String urlOf(String key) {
+        return baseUrl + "/" + key;
+    }
+
+    /**
+     * key 对应的磁盘路径，拒绝 ../ 之类越出根目录的 key
+     */
+    public Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IllegalArgumentException("非法的文件路径: " + key);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,51 @@
+package com.rednote.storage;
+
+import com.aliyun.oss.OSS;
+import com.aliyun.oss.model.DeleteObjectsRequest;
+import com.aliyun.oss.model.ObjectMetadata;
+import com.rednote.config.AliOssProperties;
+
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * 阿里云 OSS 实现，复用同一个带连接池的 OSSClient
+ */
+public class OssStorageService implements StorageService {
+
+    private final OSS ossClient;
+
+    private final AliOssProperties aliOssProperties;
+
+    public OssStorageService(OSS ossClient, AliOssProperties aliOssProperties) {
+        this.ossClient = ossClient;
+        this.aliOssProperties = aliOssProperties;
+    }
+
+    @Override
+    public void put(String key, InputStream in, long size, String contentType) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        if (size >= 0) {
+            metadata.setContentLength(size);
+        }
+        if (contentType != null) {
+            metadata.setContentType(contentType);
+        }
+        // PutObject 第一个参数是 BucketName，第二个参数是 OSS 中的完整路径
+        ossClient.putObject(aliOssProperties.getBucketName(), key, in, metadata);
+    }
+
+    @Override
+    public void delete(List<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        ossClient.deleteObjects(new DeleteObjectsRequest(aliOssProperties.getBucketName()).withKeys(keys));
+    }
+
+    @Override
+    public String urlOf(String key) {
+        // 格式：https://{bucketName}.{endpoint}/{fullPath} (基于公共读权限)
+        return "https://" + aliOssProperties.getBucketName() + "." + aliOssProperties.getEndpoint() + "/" + key;
+    }
+}
@@ -0,0 +1,168 @@
+package com.rednote.storage;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.InputStream;
+import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 多文件并发上传
+ * 所有请求共享一个并发上限 (Semaphore)，结果按传入顺序返回；
+ * 任意一张失败或超时，已经传上去的文件会被清理掉，不留孤儿对象
+ */
+public class ParallelUploader {
+
+    private final StorageService storageService;
+
+    private final ExecutorService executor;
+
+    private final Semaphore permits;
+
+    private final Duration timeout;
+
+    private final MeterRegistry meterRegistry;
+
+    public ParallelUploader(StorageService storageService, ExecutorService executor, int concurrency, Duration timeout) {
+        this(storageService, executor, concurrency, timeout, new SimpleMeterRegistry());
+    }
+
+    public ParallelUploader(StorageService storageService, ExecutorService executor, int concurrency, Duration timeout,
+                            MeterRegistry meterRegistry) {
+        this.storageService = storageService;
+        this.executor = executor;
+        this.permits = new Semaphore(Math.max(1, concurrency));
+        this.timeout = timeout;
+        this.meterRegistry = meterRegistry;
+        // 正在上传的文件数，接近 concurrency 说明并发上限成了瓶颈
+        int limit = Math.max(1, concurrency);
+        Gauge.builder("storage.upload.active", permits, p -> limit - p.availablePermits())
+                .description("Uploads currently holding a concurrency permit")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 上传单个文件，返回访问 URL
+     */
+    public String upload(UploadSource source) {
+        String key = newKey(today(), source.filename());
+        try {
+            put(key, source);
+        } catch (Exception e) {
+            throw new RuntimeException("文件上传失败", e);
+        }
+        return storageService.urlOf(key);
+    }
+
+    /**
+     * 并发上传多个文件，返回的 URL 与传入顺序一致
+     */
+    public List<String> uploadAll(List<? extends UploadSource> sources) {
+        List<String> keys = new ArrayList<>(sources.size());
+        if (sources.isEmpty()) {
+            return keys;
+        }
+
+        // 按日期分组 2025/11/26，同一批文件放在同一个目录下
+        String datePath = today();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        AtomicBoolean aborted = new AtomicBoolean(false);
+        List<CompletableFuture<Void>> futures = new ArrayList<>(sources.size());
+        for (UploadSource source : sources) {
+            String key = newKey(datePath, source.filename());
+            keys.add(key);
+            futures.add(CompletableFuture.runAsync(() -> {
+                try {
+                    put(key, source);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+                // 批次已经失败，晚到的文件自己清理掉
+                if (aborted.get()) {
+                    deleteQuietly(List.of(key));
+                }
+            }, executor).orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            aborted.set(true);
+            futures.forEach(future -> future.cancel(true));
+            deleteQuietly(keys);
+            sample.stop(batchTimer("failure"));
+            throw new RuntimeException("图片上传失败", e.getCause());
+        }
+        sample.stop(batchTimer("success"));
+
+        List<String> urls = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            urls.add(storageService.urlOf(key));
+        }
+        return urls;
+    }
+
+    private void put(String key, UploadSource source) throws Exception {
+        permits.acquire();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try (InputStream in = source.open()) {
+            storageService.put(key, in, source.size(), source.contentType());
+            outcome = "success";
+        } finally {
+            permits.release();
+            sample.stop(fileTimer(outcome));
+        }
+    }
+
+    // 单个文件上传耗时；每次现建 Builder，共享的 Builder 在并发上传时 tag 会互相覆盖
+    private Timer fileTimer(String outcome) {
+        return Timer.builder("storage.upload")
+                .description("Time to store a single file")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    // 整批上传耗时
+    private Timer batchTimer(String outcome) {
+        return Timer.builder("storage.upload.batch")
+                .description("Time to store all files of one request")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private void deleteQuietly(List<String> keys) {
+        try {
+            storageService.delete(keys);
+        } catch (Exception e) {
+            // 清理失败只能留给对象存储的生命周期规则处理
+        }
+    }
+
+    private static String today() {
+        return new SimpleDateFormat("yyyy/MM/dd").format(new Date());
+    }
+
+    private static String newKey(String datePath, String originalFilename) {
+        // 后缀：.jpg (拿不到原始后缀时默认 .jpg)
+        String extension = ".jpg";
+        if (originalFilename != null && originalFilename.lastIndexOf(".") != -1) {
+            extension = originalFilename.substring(originalFilename.lastIndexOf("."));
+        }
+        // 新文件名：UUID + 后缀 -> 2025/11/26/d8s7-f6d8-s6d8.jpg
+        return datePath + "/" + UUID.randomUUID() + extension;
+    }
+}
@@ -0,0 +1,34 @@
+package com.rednote.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 落到本地临时目录的上传文件，请求结束后仍可读取，用完由持有者删除
+ */
+public record SpooledFile(Path path, String filename, String contentType) implements UploadSource {
+
+    @Override
+    public long size() {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public InputStream open() throws IOException {
+        return Files.newInputStream(path);
+    }
+
+    public void deleteQuietly() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // 临时目录由系统定期清理
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.rednote.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * 对象存储抽象：按 key 写入、删除、生成访问 URL
+ * key 统一为 yyyy/MM/dd/uuid.ext，由 rednote.storage.type 选择 OSS 或本地磁盘实现
+ */
+public interface StorageService {
+
+    void put(String key, InputStream in, long size, String contentType) throws IOException;
+
+    void delete(List<String> keys);
+
+    String urlOf(String key);
+}
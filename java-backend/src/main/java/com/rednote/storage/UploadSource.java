@@ -0,0 +1,69 @@
+package com.rednote.storage;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 一个待上传的文件：原始文件名、大小、类型，以及可重复打开的输入流
+ */
+public interface UploadSource {
+
+    String filename();
+
+    long size();
+
+    String contentType();
+
+    InputStream open() throws IOException;
+
+    static UploadSource of(MultipartFile file) {
+        return new UploadSource() {
+            @Override
+            public String filename() {
+                return file.getOriginalFilename();
+            }
+
+            @Override
+            public long size() {
+                return file.getSize();
+            }
+
+            @Override
+            public String contentType() {
+                return file.getContentType();
+            }
+
+            @Override
+            public InputStream open() throws IOException {
+                return file.getInputStream();
+            }
+        };
+    }
+
+    static UploadSource of(String filename, byte[] bytes, String contentType) {
+        return new UploadSource() {
+            @Override
+            public String filename() {
+                return filename;
+            }
+
+            @Override
+            public long size() {
+                return bytes.length;
+            }
+
+            @Override
+            public String contentType() {
+                return contentType;
+            }
+
+            @Override
+            public InputStream open() {
+                return new ByteArrayInputStream(bytes);
+            }
+        };
+    }
+}
@@ -0,0 +1,232 @@
+package com.rednote.utils;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 只读文件头获取图片宽高 (不解码像素)
+ * 支持 JPEG (SOF + EXIF 方向)、PNG (IHDR)、GIF、WebP (VP8 / VP8L / VP8X)，
+ * 一般只需要读几 KB，代替 ImageIO.read 把整张图解码成 BufferedImage
+ */
+public final class ImageProbe {
+
+    // EXIF APP1 段最多读取的字节数，方向信息在 IFD0 里，不需要读完整个段
+    private static final int MAX_EXIF_BYTES = 64 * 1024;
+
+    private ImageProbe() {
+    }
+
+    /**
+     * 图片元数据
+     *
+     * @param orientation EXIF 方向 1-8，没有 EXIF 时为 1
+     */
+    public record ImageInfo(String format, int width, int height, int orientation) {
+
+        /**
+         * 方向为 5-8 时图片需要旋转 90 度显示，宽高互换
+         */
+        public boolean isRotated() {
+            return orientation >= 5 && orientation <= 8;
+        }
+
+        /**
+         * 按 EXIF 方向旋转后实际显示的宽
+         */
+        public int displayWidth() {
+            return isRotated() ? height : width;
+        }
+
+        /**
+         * 按 EXIF 方向旋转后实际显示的高
+         */
+        public int displayHeight() {
+            return isRotated() ? width : height;
+        }
+    }
+
+    /**
+     * 读取图片头信息，不支持的格式返回 null
+     * 只读到拿到宽高为止，调用方负责关闭输入流
+     */
+    public static ImageInfo probe(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in, 4096));
+        byte[] head = new byte[12];
+        int n = data.readNBytes(head, 0, head.length);
+
+        if (n >= 2 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8) {
+            return probeJpeg(data, head, n);
+        }
+        if (n == 12 && (head[0] & 0xFF) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G') {
+            // 8 字节签名 + 4 字节长度 (已读) + "IHDR" + 宽 + 高
+            data.skipNBytes(4);
+            return new ImageInfo("png", data.readInt(), data.readInt(), 1);
+        }
+        if (n >= 10 && head[0] == 'G' && head[1] == 'I' && head[2] == 'F') {
+            int width = (head[6] & 0xFF) | (head[7] & 0xFF) << 8;
+            int height = (head[8] & 0xFF) | (head[9] & 0xFF) << 8;
+            return new ImageInfo("gif", width, height, 1);
+        }
+        if (n == 12 && head[0] == 'R' && head[1] == 'I' && head[2] == 'F' && head[3] == 'F'
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+            return probeWebp(data);
+        }
+        return null;
+    }
+
+    private static ImageInfo probeJpeg(DataInputStream data, byte[] head, int n) throws IOException {
+        // head 里 SOI 之后已经多读了 n - 2 个字节，先把它们放回流的前面
+        InputStream rest = new SequenceInputStream(new ByteArrayInputStream(head, 2, n - 2), data);
+        DataInputStream in = new DataInputStream(rest);
+
+        int orientation = 1;
+        while (true) {
+            // 段标记：0xFF 开头，中间可能有若干填充的 0xFF
+            int b = in.readUnsignedByte();
+            if (b != 0xFF) {
+                return null;
+            }
+            int marker;
+            do {
+                marker = in.readUnsignedByte();
+            } while (marker == 0xFF);
+
+            // 没有长度字段的独立标记
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+                continue;
+            }
+            if (marker == 0xD9 || marker == 0xDA) {
+                // 到了 EOI / 扫描数据还没遇到 SOF，不是合法的 JPEG
+                return null;
+            }
+
+            int length = in.readUnsignedShort() - 2;
+            if (length < 0) {
+                return null;
+            }
+            if (isSof(marker)) {
+                // 精度(1) + 高(2) + 宽(2)
+                in.readUnsignedByte();
+                int height = in.readUnsignedShort();
+                int width = in.readUnsignedShort();
+                return new ImageInfo("jpeg", width, height, orientation);
+            }
+            if (marker == 0xE1 && length > 6) {
+                int toRead = Math.min(length, MAX_EXIF_BYTES);
+                byte[] segment = new byte[toRead];
+                in.readFully(segment);
+                in.skipNBytes(length - toRead);
+                orientation = exifOrientation(segment);
+                continue;
+            }
+            in.skipNBytes(length);
+        }
+    }
+
+    /**
+     * SOF0-SOF15，排除 DHT(C4)、JPG(C8)、DAC(CC)
+     */
+    private static boolean isSof(int marker) {
+        return marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+    }
+
+    /**
+     * 从 APP1 段中解析 EXIF 方向 (IFD0 的 0x0112 标签)，解析不了返回 1
+     */
+    private static int exifOrientation(byte[] segment) {
+        // "Exif\0\0" 之后是 TIFF 头
+        if (segment.length < 14 || segment[0] != 'E' || segment[1] != 'x' || segment[2] != 'i' || segment[3] != 'f') {
+            return 1;
+        }
+        int tiff = 6;
+        boolean littleEndian = segment[tiff] == 'I' && segment[tiff + 1] == 'I';
+        if (!littleEndian && !(segment[tiff] == 'M' && segment[tiff + 1] == 'M')) {
+            return 1;
+        }
+        long ifdOffset = readInt(segment, tiff + 4, littleEndian);
+        int ifd = tiff + (int) Math.min(ifdOffset, Integer.MAX_VALUE - tiff);
+        if (ifdOffset < 8 || ifd + 2 > segment.length) {
+            return 1;
+        }
+        int entries = readShort(segment, ifd, littleEndian);
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > segment.length) {
+                break;
+            }
+            if (readShort(segment, entry, littleEndian) == 0x0112) {
+                int value = readShort(segment, entry + 8, littleEndian);
+                return value >= 1 && value <= 8 ? value : 1;
+            }
+        }
+        return 1;
+    }
+
+    private static ImageInfo probeWebp(DataInputStream in) throws IOException {
+        byte[] fourCc = new byte[4];
+        in.readFully(fourCc);
+        // 块长度 (小端)，这里用不上
+        in.skipNBytes(4);
+
+        String chunk = new String(fourCc, StandardCharsets.US_ASCII);
+        switch (chunk) {
+            case "VP8X" -> {
+                // 标志(1) + 保留(3) + 画布宽-1 (24 位小端) + 画布高-1 (24 位小端)
+                in.skipNBytes(4);
+                int width = readUInt24(in) + 1;
+                int height = readUInt24(in) + 1;
+                return new ImageInfo("webp", width, height, 1);
+            }
+            case "VP8 " -> {
+                // 帧标记(3) + 起始码 9D 01 2A + 宽(14 位) + 高(14 位)
+                in.skipNBytes(3);
+                if (in.readUnsignedByte() != 0x9D || in.readUnsignedByte() != 0x01 || in.readUnsignedByte() != 0x2A) {
+                    return null;
+                }
+                int width = readUInt16(in) & 0x3FFF;
+                int height = readUInt16(in) & 0x3FFF;
+                return new ImageInfo("webp", width, height, 1);
+            }
+            case "VP8L" -> {
+                // 签名 0x2F + 14 位宽-1 + 14 位高-1
+                if (in.readUnsignedByte() != 0x2F) {
+                    return null;
+                }
+                int bits = readUInt16(in) | readUInt16(in) << 16;
+                int width = (bits & 0x3FFF) + 1;
+                int height = (bits >>> 14 & 0x3FFF) + 1;
+                return new ImageInfo("webp", width, height, 1);
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    private static int readUInt16(DataInputStream in) throws IOException {
+        int b0 = in.readUnsignedByte();
+        int b1 = in.readUnsignedByte();
+        return b0 | b1 << 8;
+    }
+
+    private static int readUInt24(DataInputStream in) throws IOException {
+        return readUInt16(in) | in.readUnsignedByte() << 16;
+    }
+
+    private static int readShort(byte[] b, int offset, boolean littleEndian) {
+        int b0 = b[offset] & 0xFF;
+        int b1 = b[offset + 1] & 0xFF;
+        return littleEndian ? b0 | b1 << 8 : b0 << 8 | b1;
+    }
+
+    private static long readInt(byte[] b, int offset, boolean littleEndian) {
+        long hi = readShort(b, offset, littleEndian);
+        long lo = readShort(b, offset + 2, littleEndian);
+        return littleEndian ? lo << 16 | hi : hi << 16 | lo;
+    }
+}
@@ -1,6 +1,10 @@
 package com.rednote.utils;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -9,21 +13,60 @@ import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtils {
 
     private static Key KEY;
 
+    // 不可变、线程安全的解析器，随密钥一起创建，所有请求共用
+    private static JwtParser PARSER;
+
     // 过期时间：7天 (毫秒单位)
     private static final long EXPIRATION_TIME = 1000 * 60 * 60 * 24 * 7;
 
+    // 已验证 Token 缓存的最大条数
+    private static final long VERIFIED_CACHE_SIZE = 100_000;
+
+    /**
+     * 验证过签名的 Token：key 是 Token 的 SHA-256 (不在内存里存原始 Token)，
+     * 每条在 Token 自身的 exp 时刻过期，过期后重新走完整校验
+     */
+    private static final Cache<String, Verified> VERIFIED = Caffeine.newBuilder()
+            .maximumSize(VERIFIED_CACHE_SIZE)
+            .expireAfter(new Expiry<String, Verified>() {
+                @Override
+                public long expireAfterCreate(String key, Verified value, long currentTime) {
+                    return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.expiresAt() - System.currentTimeMillis()));
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, Verified value, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, value, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String key, Verified value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
+    private record Verified(Long userId, long expiresAt) {
+    }
+
     @Value("${jwt.secret}")
     public void setSecretKey(String secretKey) {
         JwtUtils.KEY = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        JwtUtils.PARSER = Jwts.parserBuilder().setSigningKey(KEY).build();
+        VERIFIED.invalidateAll();
     }
 
     /**
@@ -49,23 +92,39 @@ public class JwtUtils {
      * 解析 Token 获取 Claims (载荷数据)
      */
     public static Claims parseToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(KEY)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return PARSER.parseClaimsJws(token).getBody();
     }
 
     /**
-     * 验证 Token 是否有效
+     * 校验 Token 并取出 UserId，无效 (过期或篡改) 时返回 null
+     * 同一个 Token 只在第一次请求时验签，之后直到过期都直接命中缓存
      */
-    public static boolean validateToken(String token) {
+    public static Long verify(String token) {
+        String key = sha256(token);
+        Verified verified = VERIFIED.getIfPresent(key);
+        if (verified != null) {
+            return verified.userId();
+        }
+
+        Claims claims;
         try {
-            parseToken(token);
-            return true; // 解析成功即为有效
+            claims = parseToken(token);
         } catch (Exception e) {
-            return false; // 解析失败（过期或篡改）
+            return null; // 解析失败（过期或篡改）
+        }
+        Long userId = Long.parseLong(claims.getSubject());
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            VERIFIED.put(key, new Verified(userId, expiration.getTime()));
         }
+        return userId;
+    }
+
+    /**
+     * 验证 Token 是否有效
+     */
+    public static boolean validateToken(String token) {
+        return verify(token) != null;
     }
 
     /**
@@ -75,4 +134,13 @@ public class JwtUtils {
         Claims claims = parseToken(token);
         return Long.parseLong(claims.getSubject());
     }
-}
\ No newline at end of file
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.rednote.utils;
+
+import com.rednote.storage.ParallelUploader;
+import com.rednote.storage.SpooledFile;
+import com.rednote.storage.UploadSource;
+import jakarta.annotation.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class UploadUtil {
+
+    @Resource
+    private ParallelUploader parallelUploader;
+
+    /**
+     * 上传文件
+     *
+     * @param file 前端传来的文件对象
+     * @return 文件的访问 URL
+     */
+    public String upload(MultipartFile file) {
+        try {
+            return parallelUploader.upload(UploadSource.of(file));
+        } catch (Exception e) {
+            throw new RuntimeException("头像上传失败", e);
+        }
+    }
+
+    /**
+     * 一次性上传多张图片 (并发上传，返回顺序与传入顺序一致)
+     *
+     * @param files 前端传来的多个文件对象
+     * @return 文件的访问 URL的列表
+     */
+    public List<String> uploadImages(MultipartFile[] files) {
+        List<UploadSource> sources = new ArrayList<>(files.length);
+        for (MultipartFile file : files) {
+            sources.add(UploadSource.of(file));
+        }
+        return parallelUploader.uploadAll(sources);
+    }
+
+    /**
+     * 上传已经落盘的文件 (异步发布时在后台线程调用)
+     */
+    public List<String> uploadImages(List<SpooledFile> files) {
+        return parallelUploader.uploadAll(files);
+    }
+
+    /**
+     * 把上传的文件复制到本地临时目录，请求结束后 multipart 临时文件会被删掉，后台任务改读这里
+     *
+     * @param files 前端传来的多个文件对象
+     * @return 临时文件列表，与传入顺序一致，用完由调用方删除
+     */
+    public List<SpooledFile> spool(MultipartFile[] files) {
+        List<SpooledFile> spooled = new ArrayList<>(files.length);
+        try {
+            for (MultipartFile file : files) {
+                Path path = Files.createTempFile("rednote-upload-", ".tmp");
+                spooled.add(new SpooledFile(path, file.getOriginalFilename(), file.getContentType()));
+                try (InputStream in = file.getInputStream()) {
+                    Files.copy(in, path, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        } catch (IOException e) {
+            spooled.forEach(SpooledFile::deleteQuietly);
+            throw new RuntimeException("图片暂存失败", e);
+        }
+        return spooled;
+    }
+}
@@ -1,3 +1,5 @@
+-- 基线：最初的 schema.sql (评论图片、帖子封面尺寸两段 ALTER 已合并进建表语句)
+
 -- 用户表
 CREATE TABLE IF NOT EXISTS `users` (
   `id` BIGINT UNSIGNED NOT NULL AUTO_INCREMENT COMMENT '用户ID',
@@ -19,6 +21,8 @@ CREATE TABLE IF NOT EXISTS `posts` (
   `title` VARCHAR(100) NOT NULL DEFAULT '' COMMENT '标题(小红书标题通常较短)',
   `content` TEXT COMMENT '正文内容',
   `images` JSON COMMENT '图片URL集合，JSON数组格式 ["url1", "url2"]',
+  `img_width` INT UNSIGNED DEFAULT 0 COMMENT '封面图/首图宽度(px)',
+  `img_height` INT UNSIGNED DEFAULT 0 COMMENT '封面图/首图高度(px)',
   `like_count` INT UNSIGNED NOT NULL DEFAULT '0' COMMENT '点赞数',
   `comment_count` INT UNSIGNED NOT NULL DEFAULT '0' COMMENT '评论数',
   `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '发布时间',
@@ -34,6 +38,9 @@ CREATE TABLE IF NOT EXISTS `comments` (
   `post_id` BIGINT UNSIGNED NOT NULL COMMENT '所属帖子ID',
   `user_id` BIGINT UNSIGNED NOT NULL COMMENT '评论者ID',
   `content` VARCHAR(1024) NOT NULL DEFAULT '' COMMENT '评论内容',
+  `image_url` VARCHAR(512) DEFAULT NULL COMMENT '评论图片URL (若为空则是纯文本)',
+  `image_width` INT UNSIGNED DEFAULT 0 COMMENT '图片宽度',
+  `image_height` INT UNSIGNED DEFAULT 0 COMMENT '图片高度',
   `like_count` INT UNSIGNED NOT NULL DEFAULT '0' COMMENT '点赞数',
   
   -- 核心：无限级评论的实现字段
@@ -47,20 +54,6 @@ CREATE TABLE IF NOT EXISTS `comments` (
   KEY `idx_root_parent` (`root_parent_id`) USING BTREE COMMENT '查询某根评论下的所有回复'
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='评论表';
 
--- 补充评论表字段 (图片支持)
--- 注意：如果表是新创建的，建议直接合并到 CREATE TABLE 中。这里保留 ALTER 语句以兼容旧表结构升级。
--- 检查列是否存在通常需要存储过程，这里直接尝试添加，如果已存在可能会报错，建议在全新环境运行。
-ALTER TABLE `comments`
-ADD COLUMN `image_url` VARCHAR(512) DEFAULT NULL COMMENT '评论图片URL (若为空则是纯文本)' AFTER `content`,
-ADD COLUMN `image_width` INT UNSIGNED DEFAULT 0 COMMENT '图片宽度' AFTER `image_url`,
-ADD COLUMN `image_height` INT UNSIGNED DEFAULT 0 COMMENT '图片高度' AFTER `image_width`;
-
--- 补充帖子表字段 (封面尺寸)
-ALTER TABLE `posts` 
-ADD COLUMN `img_width` INT UNSIGNED DEFAULT 0 COMMENT '封面图/首图宽度(px)' AFTER `images`,
-ADD COLUMN `img_height` INT UNSIGNED DEFAULT 0 COMMENT '封面图/首图高度(px)' AFTER `img_width`;
-
-
 -- 帖子点赞记录表
 CREATE TABLE IF NOT EXISTS `post_likes` (
   `id` BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
@@ -0,0 +1,11 @@
+-- 图片尺寸版本 (缩略图 / Feed 封面 / 详情大图 / WebP)，上传后由后台生成
+ALTER TABLE `posts`
+ADD COLUMN `image_renditions` JSON DEFAULT NULL COMMENT '各图片尺寸版本 [{thumb, feed, detail, webp}]，与 images 一一对应' AFTER `images`;
+
+ALTER TABLE `comments`
+ADD COLUMN `image_thumb_url` VARCHAR(512) DEFAULT NULL COMMENT '评论图片缩略图URL' AFTER `image_height`,
+ADD COLUMN `image_detail_url` VARCHAR(512) DEFAULT NULL COMMENT '评论图片详情尺寸URL' AFTER `image_thumb_url`;
+
+-- 帖子发布状态：异步发布时先插入"处理中"的记录，图片上传完成后改为已发布
+ALTER TABLE `posts`
+ADD COLUMN `status` TINYINT UNSIGNED NOT NULL DEFAULT 1 COMMENT '发布状态 0:处理中 1:已发布 2:发布失败' AFTER `img_height`;
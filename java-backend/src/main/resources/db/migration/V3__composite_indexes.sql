@@ -0,0 +1,15 @@
+-- 按实际查询的过滤 + 排序列建联合索引，分页直接沿索引顺序扫描，不再 filesort
+-- (InnoDB 二级索引本身带主键，末尾的 id 写出来是为了和 ORDER BY 对照)
+
+-- 一级评论按热度分页：post_id = ? AND root_parent_id IS NULL ORDER BY like_count DESC, id DESC
+-- 同时覆盖按帖子统计评论数 (校正任务)，取代 idx_post_id
+ALTER TABLE `comments`
+ADD KEY `idx_post_root_like` (`post_id`, `root_parent_id`, `like_count`, `id`) COMMENT '一级评论按点赞数分页',
+-- 楼中楼按时间分页 / Top Reply / 回复数：root_parent_id = ? ORDER BY created_at, id，取代 idx_root_parent
+ADD KEY `idx_root_created` (`root_parent_id`, `created_at`, `id`) COMMENT '楼中楼按时间分页',
+DROP KEY `idx_post_id`,
+DROP KEY `idx_root_parent`;
+
+-- 首页 Feed 与时间线重建：status = 1 ORDER BY id DESC
+ALTER TABLE `posts`
+ADD KEY `idx_status_id` (`status`, `id`) COMMENT 'Feed 只取已发布的帖子，按 ID 倒序';
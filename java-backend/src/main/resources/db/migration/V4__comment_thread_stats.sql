@@ -0,0 +1,20 @@
+-- 一级评论上冗余回复数和 Top Reply (最早的一条回复)，发表回复时在同一事务里维护，
+-- 评论区首屏不再对整楼回复做窗口排序和 GROUP BY
+ALTER TABLE `comments`
+ADD COLUMN `reply_count` INT UNSIGNED NOT NULL DEFAULT 0 COMMENT '楼中楼回复数 (仅一级评论)' AFTER `like_count`,
+ADD COLUMN `top_reply_id` BIGINT UNSIGNED DEFAULT NULL COMMENT '最早的一条回复ID (仅一级评论)' AFTER `reply_to_user_id`;
+
+-- 回填已有数据 (之后的偏差由 CommentCountReconcileJob 按 ID 区间校正)
+UPDATE `comments` c
+JOIN (
+    SELECT
+        r.root_parent_id,
+        COUNT(*) AS cnt,
+        (SELECT t.id FROM `comments` t WHERE t.root_parent_id = r.root_parent_id
+         ORDER BY t.created_at, t.id LIMIT 1) AS top_id
+    FROM `comments` r
+    WHERE r.root_parent_id IS NOT NULL
+    GROUP BY r.root_parent_id
+) s ON s.root_parent_id = c.id
+SET c.reply_count = s.cnt,
+    c.top_reply_id = s.top_id;
@@ -0,0 +1,11 @@
+-- Feed 卡片的封面图单独存一列 (有 Feed 尺寸版本时为缩小后的版本，否则为第一张原图)，
+-- Feed 查询只读卡片需要的列，不再读正文、不再解析整个图片 JSON
+ALTER TABLE `posts`
+ADD COLUMN `cover_url` VARCHAR(512) DEFAULT NULL COMMENT 'Feed 封面图URL，发布和生成尺寸版本时维护' AFTER `image_renditions`;
+
+-- 回填已有数据
+UPDATE `posts`
+SET `cover_url` = COALESCE(
+    JSON_UNQUOTE(JSON_EXTRACT(`image_renditions`, '$[0].feed')),
+    JSON_UNQUOTE(JSON_EXTRACT(`images`, '$[0]')))
+WHERE `cover_url` IS NULL;
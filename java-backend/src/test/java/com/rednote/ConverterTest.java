@@ -0,0 +1,110 @@
+package com.rednote;
+
+import com.rednote.cache.FeedItem;
+import com.rednote.converter.CommentConverter;
+import com.rednote.converter.PostConverter;
+import com.rednote.converter.UserConverter;
+import com.rednote.entity.Comment;
+import com.rednote.entity.ImageRendition;
+import com.rednote.entity.Post;
+import com.rednote.entity.User;
+import com.rednote.entity.vo.CommentVO;
+import com.rednote.entity.vo.PostDetailVO;
+import com.rednote.entity.vo.PostInfoVO;
+import com.rednote.entity.vo.UserInfoVO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 生成的 Converter 与原来 BeanUtil / 手写赋值的结果一致
+ */
+public class ConverterTest {
+
+    private final PostConverter postConverter = Mappers.getMapper(PostConverter.class);
+
+    private final CommentConverter commentConverter = Mappers.getMapper(CommentConverter.class);
+
+    private final UserConverter userConverter = Mappers.getMapper(UserConverter.class);
+
+    @Test
+    public void postToDetailVO() {
+        Post post = new Post();
+        post.setId(1L);
+        post.setUserId(6L);
+        post.setTitle("标题");
+        post.setContent("正文");
+        post.setImages(List.of("a.jpg", "b.jpg"));
+        post.setImageRenditions(List.of(new ImageRendition("a-thumb.jpg", "a-feed.jpg", "a-detail.jpg", null)));
+        post.setImgWidth(1080);
+        post.setImgHeight(1440);
+        post.setLikeCount(3);
+        post.setCommentCount(2);
+        post.setCreatedAt(LocalDateTime.of(2025, 11, 26, 12, 0));
+
+        PostDetailVO vo = postConverter.toDetailVO(post);
+        Assertions.assertEquals(1L, vo.getId());
+        Assertions.assertEquals(6L, vo.getAuthorId());
+        Assertions.assertEquals(post.getImages(), vo.getImages());
+        Assertions.assertEquals("a-feed.jpg", vo.getImageRenditions().getFirst().getFeed());
+        Assertions.assertEquals(1080, vo.getImgWidth());
+        Assertions.assertEquals(3, vo.getLikeCount());
+        Assertions.assertEquals(2, vo.getCommentCount());
+        Assertions.assertEquals(post.getCreatedAt(), vo.getCreatedAt());
+        Assertions.assertNull(vo.getIsLiked());
+    }
+
+    @Test
+    public void feedItemToInfoVO() {
+        PostInfoVO vo = postConverter.toInfoVO(new FeedItem(1L, 6L, "标题", "a-feed.jpg", 540, 720, 3));
+        Assertions.assertEquals(1L, vo.getId());
+        Assertions.assertEquals("标题", vo.getTitle());
+        Assertions.assertEquals("a-feed.jpg", vo.getImage());
+        Assertions.assertEquals(540, vo.getWidth());
+        Assertions.assertEquals(720, vo.getHeight());
+        // 点赞数由调用方叠加增量后设置
+        Assertions.assertNull(vo.getLikeCount());
+    }
+
+    @Test
+    public void commentToVO() {
+        Comment comment = new Comment();
+        comment.setId(1L);
+        comment.setPostId(2L);
+        comment.setUserId(6L);
+        comment.setContent("评论");
+        comment.setLikeCount(5);
+        comment.setImageUrl("c.jpg");
+        comment.setImageWidth(720);
+        comment.setImageHeight(960);
+        comment.setImageThumbUrl("c-thumb.jpg");
+        comment.setImageDetailUrl("c-detail.jpg");
+
+        CommentVO vo = commentConverter.toVO(comment);
+        Assertions.assertEquals(1L, vo.getId());
+        Assertions.assertEquals(2L, vo.getPostId());
+        Assertions.assertEquals(6L, vo.getUserId());
+        Assertions.assertEquals(5, vo.getLikeCount());
+        Assertions.assertEquals("c.jpg", vo.getImageUrl());
+        Assertions.assertEquals("c-thumb.jpg", vo.getThumbnailUrl());
+        Assertions.assertEquals("c-detail.jpg", vo.getDetailUrl());
+        Assertions.assertNull(vo.getTopReply());
+    }
+
+    @Test
+    public void userToInfoVO() {
+        User user = new User();
+        user.setId(6L);
+        user.setEmail("a@rednote.com");
+        user.setPasswordHash("hash");
+        user.setNickname("昵称");
+
+        UserInfoVO vo = userConverter.toInfoVO(user);
+        Assertions.assertEquals(6L, vo.getId());
+        Assertions.assertEquals("a@rednote.com", vo.getEmail());
+        Assertions.assertEquals("昵称", vo.getNickname());
+    }
+}
@@ -0,0 +1,69 @@
+package com.rednote;
+
+import com.rednote.common.CursorCodec;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 游标编解码：往返、防篡改、类型隔离
+ */
+public class CursorCodecTest {
+
+    private final CursorCodec codec = new CursorCodec("test-cursor-secret");
+
+    @Test
+    public void roundTrip() {
+        long[][] samples = {{0, 0}, {1024, 7654321}, {-1, Long.MAX_VALUE}, {Long.MIN_VALUE, 1}};
+        for (long[] keys : samples) {
+            String cursor = codec.encode(CursorCodec.Kind.COMMENT_FEED, keys);
+            Assertions.assertFalse(cursor.contains("=") || cursor.contains("+") || cursor.contains("/"));
+            Assertions.assertArrayEquals(keys, codec.decode(CursorCodec.Kind.COMMENT_FEED, cursor));
+        }
+        // 小的值编码后很短：2 字节头 + 2 字节 + 3 字节 + 8 字节校验
+        Assertions.assertTrue(codec.encode(CursorCodec.Kind.COMMENT_FEED, 12, 3456).length() <= 20);
+    }
+
+    @Test
+    public void emptyCursorIsFirstPage() {
+        Assertions.assertNull(codec.decode(CursorCodec.Kind.POST_FEED, null));
+        Assertions.assertNull(codec.decode(CursorCodec.Kind.POST_FEED, ""));
+    }
+
+    @Test
+    public void rejectsTamperedCursor() {
+        String cursor = codec.encode(CursorCodec.Kind.POST_FEED, 100);
+        byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+        bytes[2] ^= 0x01;
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Assertions.assertThrows(RuntimeException.class, () -> codec.decode(CursorCodec.Kind.POST_FEED, tampered));
+
+        // 旧格式、乱码、别的密钥签出来的游标
+        Assertions.assertThrows(RuntimeException.class, () -> codec.decode(CursorCodec.Kind.POST_FEED, "100"));
+        Assertions.assertThrows(RuntimeException.class, () -> codec.decode(CursorCodec.Kind.COMMENT_FEED, "10-5"));
+        Assertions.assertThrows(RuntimeException.class, () -> codec.decode(CursorCodec.Kind.POST_FEED, "!!!"));
+        String foreign = new CursorCodec("another-secret").encode(CursorCodec.Kind.POST_FEED, 100);
+        Assertions.assertThrows(RuntimeException.class, () -> codec.decode(CursorCodec.Kind.POST_FEED, foreign));
+    }
+
+    @Test
+    public void rejectsCursorOfAnotherList() {
+        String reply = codec.encode(CursorCodec.Kind.REPLY, 100, 200);
+        Assertions.assertThrows(RuntimeException.class, () -> codec.decode(CursorCodec.Kind.POST_FEED, reply));
+    }
+
+    @Test
+    public void keysetPredicate() {
+        Assertions.assertEquals("((like_count < {0}) OR (like_count = {0} AND id < {1}))",
+                CursorCodec.after(true, "like_count", "id"));
+        Assertions.assertEquals("((id > {0}))", CursorCodec.after(false, "id"));
+    }
+
+    @Test
+    public void timeKeyRoundTrip() {
+        LocalDateTime time = LocalDateTime.of(2025, 11, 26, 12, 30, 15);
+        Assertions.assertEquals(time, CursorCodec.timeOf(CursorCodec.timeKey(time)));
+    }
+}
@@ -2,7 +2,7 @@ package com.rednote;
 
 import com.rednote.entity.Post;
 import com.rednote.service.PostService;
-import com.rednote.utils.AliOssUtil;
+import com.rednote.utils.UploadUtil;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -20,7 +20,7 @@ import java.util.Random;
 public class DataGeneratorTest {
 
     @Autowired
-    private AliOssUtil aliOssUtil;
+    private UploadUtil uploadUtil;
 
     @Autowired
     private PostService postService;
@@ -222,7 +222,7 @@ public class DataGeneratorTest {
                     file.getName(),
                     "image/jpeg",
                     input);
-            return aliOssUtil.upload(multipartFile);
+            return uploadUtil.upload(multipartFile);
         } catch (Exception e) {
             System.err.println("Failed to upload image: " + file.getName());
             e.printStackTrace();
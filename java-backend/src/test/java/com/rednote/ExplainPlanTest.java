@@ -0,0 +1,239 @@
+package com.rednote;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.rednote.cache.FeedTimeline;
+import com.rednote.cache.PostDetailCache;
+import com.rednote.common.CursorCodec;
+import com.rednote.common.CursorResult;
+import com.rednote.common.UserContext;
+import com.rednote.entity.Comment;
+import com.rednote.entity.Post;
+import com.rednote.entity.vo.CommentVO;
+import com.rednote.mapper.CommentLikeMapper;
+import com.rednote.mapper.CommentMapper;
+import com.rednote.mapper.PostLikeMapper;
+import com.rednote.mapper.PostMapper;
+import com.rednote.service.CommentService;
+import com.rednote.service.PostService;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 执行计划检查：在已有数据的库上 (先跑 DataGeneratorTest / CommentGenerationTest 造数据，
+ * 空库上没有意义，标记为跳过而不是通过)
+ * 走一遍 Feed、详情、评论、楼中楼、点赞写回、校正任务的路径，对期间执行的每条 Mapper 语句做 EXPLAIN，
+ * 出现全表扫描 (type=ALL) 或 filesort 即失败；XML 里的语句必须全部被检查到。
+ * 写语句只 EXPLAIN 不执行，不会改动库里的数据
+ */
+@SpringBootTest
+public class ExplainPlanTest {
+
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PostMapper postMapper;
+
+    @Autowired
+    private CommentMapper commentMapper;
+
+    @Autowired
+    private PostLikeMapper postLikeMapper;
+
+    @Autowired
+    private CommentLikeMapper commentLikeMapper;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private FeedTimeline feedTimeline;
+
+    @Autowired
+    private PostDetailCache postDetailCache;
+
+    @Autowired
+    private CursorCodec cursorCodec;
+
+    @Test
+    public void everyStatementUsesAnIndex() {
+        // 评论最多的帖子，和任意一条有回复的根评论
+        Post post = postMapper.selectOne(new LambdaQueryWrapper<Post>()
+                .orderByDesc(Post::getCommentCount).last("LIMIT 1"));
+        Comment reply = commentMapper.selectOne(new LambdaQueryWrapper<Comment>()
+                .isNotNull(Comment::getRootParentId).last("LIMIT 1"));
+        Assumptions.assumeTrue(post != null && reply != null, "No posts or replies found");
+
+        PlanRecorder recorder = new PlanRecorder(dataSource, Thread.currentThread());
+        sqlSessionFactory.getConfiguration().addInterceptor(recorder);
+        try {
+            UserContext.runWith(post.getUserId(), () -> {
+                feedTimeline.rebuild();
+                postService.getFeedList(null, 10);
+                // 时间线窗口之外的深翻页走数据库
+                Long minId = postMapper.selectOne(new LambdaQueryWrapper<Post>()
+                        .orderByAsc(Post::getId).last("LIMIT 1")).getId();
+                postService.getFeedList(cursorCodec.encode(CursorCodec.Kind.POST_FEED, minId + 20), 10);
+
+                postDetailCache.invalidate(post.getId());
+                postService.getPostDetailById(post.getId());
+
+                CursorResult<CommentVO> page = commentService.getCommentFeed(post.getId(), null, 10);
+                // 热门帖子走排行索引时按 ID 回表 (评论最多的帖子第一页不会为空)
+                commentMapper.selectCommentFeedByIds(page.getList().stream().map(CommentVO::getId).toList(),
+                        post.getUserId());
+                if (page.getNextCursor() != null) {
+                    commentService.getCommentFeed(post.getId(), page.getNextCursor(), 10);
+                }
+                CursorResult<CommentVO> roots = commentService.getRootComments(post.getId(), null, 20);
+                if (roots.getNextCursor() != null) {
+                    commentService.getRootComments(post.getId(), roots.getNextCursor(), 20);
+                }
+
+                CursorResult<CommentVO> replies = commentService.getReplies(reply.getRootParentId(), null, 5);
+                if (replies.getNextCursor() != null) {
+                    commentService.getReplies(reply.getRootParentId(), replies.getNextCursor(), 5);
+                }
+
+                // 以下写语句被拦截器改成只 EXPLAIN
+                postLikeMapper.insertIgnore(post.getUserId(), post.getId());
+                commentLikeMapper.insertIgnore(post.getUserId(), reply.getId());
+                postMapper.batchIncrLikeCount(Map.of(post.getId(), 1L));
+                commentMapper.batchIncrLikeCount(Map.of(reply.getId(), 1L));
+                commentMapper.incrReplyStats(reply.getRootParentId(), reply.getId());
+
+                postMapper.selectMaxId();
+                postMapper.selectCommentCountDrift(post.getId(), post.getId() + 1000);
+                postMapper.reconcileCommentCounts(post.getId(), post.getId() + 1000);
+                commentMapper.selectMaxId();
+                commentMapper.reconcileReplyStats(reply.getRootParentId(), reply.getRootParentId() + 1000);
+            });
+        } finally {
+            recorder.enabled = false;
+        }
+
+        List<String> violations = new ArrayList<>();
+        for (Plan plan : recorder.plans) {
+            System.out.println(plan);
+            boolean derived = plan.table != null && plan.table.startsWith("<");
+            // INSERT 的计划里目标表总是 type=ALL，不代表扫描
+            boolean insert = "INSERT".equals(plan.selectType);
+            if ("ALL".equals(plan.type) && !derived && !insert) {
+                violations.add("full scan: " + plan);
+            }
+            if (plan.extra != null && plan.extra.contains("Using filesort")) {
+                violations.add("filesort: " + plan);
+            }
+        }
+        Assertions.assertFalse(recorder.plans.isEmpty());
+        Assertions.assertTrue(violations.isEmpty(), String.join("\n", violations));
+
+        // 新加的 XML 语句也要在上面走到
+        Set<String> explained = new HashSet<>();
+        recorder.plans.forEach(plan -> explained.add(plan.statement));
+        List<String> missing = new ArrayList<>();
+        for (Object value : sqlSessionFactory.getConfiguration().getMappedStatements()) {
+            if (value instanceof MappedStatement ms && ms.getId().startsWith("com.rednote.mapper.")
+                    && !ms.getId().contains("!") && ms.getResource() != null && ms.getResource().contains(".xml")
+                    && !explained.contains(ms.getId())) {
+                missing.add(ms.getId());
+            }
+        }
+        Assertions.assertTrue(missing.isEmpty(), "not explained: " + missing);
+    }
+
+    private record Plan(String statement, String selectType, String table, String type, String key, String rows,
+                        String extra) {
+    }
+
+    /**
+     * 执行前用另一条连接对同样的 SQL 和参数做 EXPLAIN
+     * 测试线程发出的写语句只 EXPLAIN、不执行 (返回影响 0 行)；其他线程 (比如定时写回) 的写语句照常执行，不记录
+     */
+    @Intercepts({
+            @Signature(type = Executor.class, method = "update",
+                    args = {MappedStatement.class, Object.class}),
+            @Signature(type = Executor.class, method = "query",
+                    args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class})
+    })
+    private static class PlanRecorder implements Interceptor {
+
+        private final DataSource dataSource;
+
+        private final List<Plan> plans = new CopyOnWriteArrayList<>();
+
+        private final Thread owner;
+
+        private volatile boolean enabled = true;
+
+        PlanRecorder(DataSource dataSource, Thread owner) {
+            this.dataSource = dataSource;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object intercept(Invocation invocation) throws Throwable {
+            MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+            Object parameter = invocation.getArgs()[1];
+            if (!enabled || !ms.getId().startsWith("com.rednote.mapper.")) {
+                return invocation.proceed();
+            }
+            if (ms.getSqlCommandType() == SqlCommandType.SELECT) {
+                explain(ms, parameter);
+                return invocation.proceed();
+            }
+            if (Thread.currentThread() != owner) {
+                return invocation.proceed();
+            }
+            explain(ms, parameter);
+            return 0;
+        }
+
+        private void explain(MappedStatement ms, Object parameter) throws Exception {
+            BoundSql boundSql = ms.getBoundSql(parameter);
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement ps = connection.prepareStatement("EXPLAIN " + boundSql.getSql())) {
+                new DefaultParameterHandler(ms, parameter, boundSql).setParameters(ps);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        plans.add(new Plan(ms.getId(), rs.getString("select_type"), rs.getString("table"),
+                                rs.getString("type"),
+                                rs.getString("key"), rs.getString("rows"), rs.getString("Extra")));
+                    }
+                }
+            }
+        }
+    }
+}
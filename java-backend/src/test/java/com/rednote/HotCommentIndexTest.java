@@ -0,0 +1,129 @@
+package com.rednote;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.rednote.cache.HotCommentIndex;
+import com.rednote.common.CursorResult;
+import com.rednote.entity.Comment;
+import com.rednote.entity.Post;
+import com.rednote.entity.vo.CommentVO;
+import com.rednote.mapper.CommentMapper;
+import com.rednote.mapper.PostMapper;
+import com.rednote.service.CommentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 热门评论排行索引：第一次请求就建索引 (阈值调成 1)，逐页翻完和直接查库的顺序一致，
+ * 点赞后位置随之调整，新评论进入排行并按新的评论数计入容量
+ * 用自己插入的帖子和评论，结束后删掉
+ */
+@SpringBootTest(properties = "rednote.cache.hot-comments.hot-threshold=1")
+public class HotCommentIndexTest {
+
+    private static final int ROOTS = 30;
+
+    @Autowired
+    private PostMapper postMapper;
+
+    @Autowired
+    private CommentMapper commentMapper;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private HotCommentIndex hotCommentIndex;
+
+    private Long postId;
+
+    @BeforeEach
+    public void setUp() {
+        Post post = new Post();
+        post.setUserId(1L);
+        post.setTitle("热门评论索引测试");
+        post.setContent("热门评论索引测试正文");
+        post.setImages(new ArrayList<>());
+        post.setStatus(Post.STATUS_PUBLISHED);
+        postMapper.insert(post);
+        postId = post.getId();
+        // 点赞数有重复，顺带覆盖 ID 倒序的次级排序
+        for (int i = 0; i < ROOTS; i++) {
+            insertRoot(i % 7);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        hotCommentIndex.getRankings().invalidate(postId);
+        commentMapper.delete(new LambdaQueryWrapper<Comment>().eq(Comment::getPostId, postId));
+        postMapper.deleteById(postId);
+    }
+
+    @Test
+    public void pagesMatchSqlOrder() {
+        List<Long> expected = commentMapper.selectList(new LambdaQueryWrapper<Comment>()
+                        .select(Comment::getId)
+                        .eq(Comment::getPostId, postId)
+                        .isNull(Comment::getRootParentId)
+                        .orderByDesc(Comment::getLikeCount)
+                        .orderByDesc(Comment::getId))
+                .stream().map(Comment::getId).toList();
+
+        List<Long> actual = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorResult<CommentVO> page = commentService.getCommentFeed(postId, cursor, 7);
+            page.getList().forEach(vo -> actual.add(vo.getId()));
+            cursor = page.getHasMore() ? page.getNextCursor() : null;
+        } while (cursor != null);
+
+        Assertions.assertNotNull(hotCommentIndex.getRankings().getIfPresent(postId));
+        Assertions.assertEquals(expected, actual);
+    }
+
+    @Test
+    public void likeMovesCommentUp() {
+        List<HotCommentIndex.Ranked> all = hotCommentIndex.page(postId, null, null, ROOTS);
+        HotCommentIndex.Ranked top = all.getFirst();
+        HotCommentIndex.Ranked last = all.getLast();
+
+        // 不在事务中，直接生效；只动索引，不写库
+        hotCommentIndex.onLike(last.id(), top.likeCount() + 1 - last.likeCount());
+        Assertions.assertEquals(last.id(), hotCommentIndex.page(postId, null, null, 1).getFirst().id());
+    }
+
+    @Test
+    public void newCommentJoinsRankingAndWeight() {
+        hotCommentIndex.page(postId, null, null, 1);
+        Assertions.assertEquals(ROOTS, weightOf(postId));
+
+        Long commentId = insertRoot(0);
+        hotCommentIndex.onComment(postId, commentId);
+        hotCommentIndex.onLike(commentId, 100);
+
+        Assertions.assertEquals(commentId, hotCommentIndex.page(postId, null, null, 1).getFirst().id());
+        Assertions.assertEquals(ROOTS + 1, weightOf(postId));
+    }
+
+    private Long insertRoot(int likeCount) {
+        Comment comment = new Comment();
+        comment.setPostId(postId);
+        comment.setUserId(1L);
+        comment.setContent("热门评论索引测试评论");
+        comment.setLikeCount(likeCount);
+        commentMapper.insert(comment);
+        return comment.getId();
+    }
+
+    private long weightOf(Long postId) {
+        return hotCommentIndex.getRankings().policy().eviction().orElseThrow()
+                .weightOf(postId).orElseThrow();
+    }
+}
@@ -2,12 +2,12 @@ package com.rednote;
 
 import com.rednote.entity.Post;
 import com.rednote.service.PostService;
+import com.rednote.utils.ImageProbe;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
+import java.io.InputStream;
 import java.net.URL;
 import java.util.List;
 
@@ -31,11 +31,14 @@ public class ImageDimensionUpdaterTest {
                 try {
                     System.out.println("Processing Post ID " + post.getId() + "...");
                     // 2. Get dimensions
-                    URL url = new URL(firstImageUrl);
-                    BufferedImage image = ImageIO.read(url);
+                    // Only the header bytes are downloaded, no full decode
+                    ImageProbe.ImageInfo image;
+                    try (InputStream in = new URL(firstImageUrl).openStream()) {
+                        image = ImageProbe.probe(in);
+                    }
                     if (image != null) {
-                        int width = image.getWidth();
-                        int height = image.getHeight();
+                        int width = image.displayWidth();
+                        int height = image.displayHeight();
 
                         // 3. Update post
                         post.setImgWidth(width);
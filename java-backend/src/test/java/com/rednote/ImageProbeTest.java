@@ -0,0 +1,101 @@
+package com.rednote;
+
+import com.rednote.utils.ImageProbe;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * 图片头解析：各格式宽高与 JPEG EXIF 方向
+ */
+public class ImageProbeTest {
+
+    @Test
+    public void probePngJpegGif() throws IOException {
+        for (String format : new String[]{"png", "jpeg", "gif"}) {
+            ImageProbe.ImageInfo info = ImageProbe.probe(new ByteArrayInputStream(encode(format, 640, 480)));
+            Assertions.assertNotNull(info, format);
+            Assertions.assertEquals(format, info.format());
+            Assertions.assertEquals(640, info.width());
+            Assertions.assertEquals(480, info.height());
+            Assertions.assertEquals(1, info.orientation());
+        }
+    }
+
+    @Test
+    public void probeJpegExifOrientation() throws IOException {
+        byte[] jpeg = encode("jpeg", 640, 480);
+        // 在 SOI 之后插入一个只有 Orientation=6 (顺时针 90 度) 的 EXIF 段，大端
+        byte[] exif = {
+                (byte) 0xFF, (byte) 0xE1, 0x00, 0x22,
+                'E', 'x', 'i', 'f', 0x00, 0x00,
+                'M', 'M', 0x00, 0x2A, 0x00, 0x00, 0x00, 0x08,
+                0x00, 0x01,
+                0x01, 0x12, 0x00, 0x03, 0x00, 0x00, 0x00, 0x01, 0x00, 0x06, 0x00, 0x00,
+                0x00, 0x00, 0x00, 0x00
+        };
+        byte[] withExif = new byte[jpeg.length + exif.length];
+        System.arraycopy(jpeg, 0, withExif, 0, 2);
+        System.arraycopy(exif, 0, withExif, 2, exif.length);
+        System.arraycopy(jpeg, 2, withExif, 2 + exif.length, jpeg.length - 2);
+
+        ImageProbe.ImageInfo info = ImageProbe.probe(new ByteArrayInputStream(withExif));
+        Assertions.assertNotNull(info);
+        Assertions.assertEquals(6, info.orientation());
+        Assertions.assertEquals(480, info.displayWidth());
+        Assertions.assertEquals(640, info.displayHeight());
+    }
+
+    @Test
+    public void probeWebp() throws IOException {
+        // VP8X：画布 1000x750 (存的是减 1 后的值)
+        byte[] vp8x = webp("VP8X", new byte[]{0x00, 0x00, 0x00, 0x00,
+                (byte) 0xE7, 0x03, 0x00, (byte) 0xED, 0x02, 0x00});
+        assertSize(ImageProbe.probe(new ByteArrayInputStream(vp8x)), 1000, 750);
+
+        // VP8 有损：帧标记 + 起始码 + 宽高各 14 位
+        byte[] vp8 = webp("VP8 ", new byte[]{0x00, 0x00, 0x00, (byte) 0x9D, 0x01, 0x2A,
+                (byte) 0x80, 0x02, (byte) 0xE0, 0x01});
+        assertSize(ImageProbe.probe(new ByteArrayInputStream(vp8)), 640, 480);
+
+        // VP8L 无损：宽-1 = 639，高-1 = 479
+        int bits = 639 | 479 << 14;
+        byte[] vp8l = webp("VP8L", new byte[]{0x2F, (byte) bits, (byte) (bits >> 8),
+                (byte) (bits >> 16), (byte) (bits >> 24)});
+        assertSize(ImageProbe.probe(new ByteArrayInputStream(vp8l)), 640, 480);
+    }
+
+    @Test
+    public void unknownFormat() throws IOException {
+        Assertions.assertNull(ImageProbe.probe(new ByteArrayInputStream("not an image".getBytes())));
+    }
+
+    private static void assertSize(ImageProbe.ImageInfo info, int width, int height) {
+        Assertions.assertNotNull(info);
+        Assertions.assertEquals(width, info.width());
+        Assertions.assertEquals(height, info.height());
+    }
+
+    private static byte[] encode(String format, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+
+    private static byte[] webp(String chunk, byte[] payload) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes("RIFF".getBytes());
+        out.writeBytes(new byte[]{0x00, 0x00, 0x00, 0x00});
+        out.writeBytes("WEBP".getBytes());
+        out.writeBytes(chunk.getBytes());
+        out.writeBytes(new byte[]{(byte) payload.length, 0x00, 0x00, 0x00});
+        out.writeBytes(payload);
+        return out.toByteArray();
+    }
+}
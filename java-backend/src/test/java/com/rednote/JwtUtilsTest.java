@@ -0,0 +1,46 @@
+package com.rednote;
+
+import com.rednote.utils.JwtUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+
+/**
+ * Token 校验与已验证缓存
+ */
+public class JwtUtilsTest {
+
+    @BeforeAll
+    public static void setup() {
+        new JwtUtils().setSecretKey("jwt-utils-test-secret-jwt-utils-test-secret");
+    }
+
+    @Test
+    public void verifyAndCache() {
+        String token = JwtUtils.generateToken(42L);
+        Assertions.assertEquals(42L, JwtUtils.verify(token));
+        // 第二次命中缓存，结果相同
+        Assertions.assertEquals(42L, JwtUtils.verify(token));
+        Assertions.assertTrue(JwtUtils.validateToken(token));
+    }
+
+    @Test
+    public void rejectTampered() {
+        String token = JwtUtils.generateToken(42L);
+        // 改掉签名中间的一个字符 (最后一个字符只有高位有效，A/B 互换可能解码出同样的字节)
+        int signature = token.lastIndexOf('.') + 1;
+        int middle = signature + (token.length() - signature) / 2;
+        char c = token.charAt(middle);
+        String tampered = token.substring(0, middle) + (c == 'A' ? 'B' : 'A') + token.substring(middle + 1);
+        Assertions.assertNull(JwtUtils.verify(tampered));
+        // 改掉载荷里的用户 ID
+        String[] parts = token.split("\\.");
+        String forged = parts[0] + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(new String(Base64.getUrlDecoder().decode(parts[1]))
+                        .replace("42", "43").getBytes()) + "." + parts[2];
+        Assertions.assertNull(JwtUtils.verify(forged));
+        Assertions.assertNull(JwtUtils.verify("not-a-token"));
+    }
+}
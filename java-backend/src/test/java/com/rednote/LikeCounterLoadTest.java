@@ -0,0 +1,104 @@
+package com.rednote;
+
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.rednote.counter.LikeCounterAggregator;
+import com.rednote.entity.Post;
+import com.rednote.mapper.PostMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongConsumer;
+
+/**
+ * 单个热点帖子上的点赞计数吞吐对比：
+ * before - 每次点赞直接 UPDATE like_count = like_count ± 1 (行锁排队)
+ * after  - 点赞写入 LikeCounterAggregator，由 flush 批量写回
+ * 每个线程交替 +1 / -1，跑完后帖子点赞数应与开始时一致
+ * 压测，不在默认测试集里：mvn -P load test
+ */
+@Tag("load")
+@SpringBootTest
+public class LikeCounterLoadTest {
+
+    private static final int THREADS = 32;
+    private static final int OPS_PER_THREAD = 500;
+
+    @Autowired
+    private PostMapper postMapper;
+
+    @Autowired
+    private LikeCounterAggregator likeCounterAggregator;
+
+    private Long postId;
+
+    @BeforeEach
+    public void setUp() {
+        Post post = new Post();
+        post.setUserId(1L);
+        post.setTitle("点赞计数压测");
+        post.setContent("点赞计数压测正文");
+        post.setImages(new ArrayList<>());
+        post.setLikeCount(1000);
+        post.setStatus(Post.STATUS_PUBLISHED);
+        postMapper.insert(post);
+        postId = post.getId();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        likeCounterAggregator.flush();
+        postMapper.deleteById(postId);
+    }
+
+    @Test
+    public void hotPostThroughput() throws Exception {
+        likeCounterAggregator.flush();
+        int before = postMapper.selectById(postId).getLikeCount();
+
+        double direct = run("direct UPDATE", delta -> postMapper.update(null, new LambdaUpdateWrapper<Post>()
+                .eq(Post::getId, postId)
+                .setSql("like_count = like_count + " + delta)));
+        Assertions.assertEquals(before, postMapper.selectById(postId).getLikeCount());
+
+        double aggregated = run("write-behind", delta -> likeCounterAggregator.incrementPost(postId, delta));
+        likeCounterAggregator.flush();
+        Assertions.assertEquals(before, postMapper.selectById(postId).getLikeCount());
+
+        System.out.printf("Post %d: direct %.0f ops/s, write-behind %.0f ops/s (x%.1f)%n",
+                postId, direct, aggregated, aggregated / direct);
+    }
+
+    private double run(String name, LongConsumer like) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < OPS_PER_THREAD; i++) {
+                        like.accept(i % 2 == 0 ? 1 : -1);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            double opsPerSecond = THREADS * OPS_PER_THREAD / seconds;
+            System.out.printf("%s: %d ops in %.3fs -> %.0f ops/s%n", name, THREADS * OPS_PER_THREAD, seconds, opsPerSecond);
+            return opsPerSecond;
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
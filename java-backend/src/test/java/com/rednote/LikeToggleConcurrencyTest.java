@@ -0,0 +1,172 @@
+package com.rednote;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.rednote.common.UserContext;
+import com.rednote.counter.LikeCounterAggregator;
+import com.rednote.entity.Comment;
+import com.rednote.entity.CommentLike;
+import com.rednote.entity.Post;
+import com.rednote.entity.PostLike;
+import com.rednote.entity.User;
+import com.rednote.mapper.CommentLikeMapper;
+import com.rednote.mapper.CommentMapper;
+import com.rednote.mapper.PostLikeMapper;
+import com.rednote.mapper.PostMapper;
+import com.rednote.mapper.UserMapper;
+import com.rednote.service.CommentService;
+import com.rednote.service.PostService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 同一用户对同一目标并发狂点 (点赞/取消随机交替)，
+ * 全程不应抛出唯一键冲突，结束后点赞数必须与点赞记录完全一致
+ * 用户、帖子、评论都由测试自己创建，结束后删掉
+ */
+@SpringBootTest
+public class LikeToggleConcurrencyTest {
+
+    private static final int TOGGLES = 2000;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private PostMapper postMapper;
+
+    @Autowired
+    private CommentMapper commentMapper;
+
+    @Autowired
+    private PostLikeMapper postLikeMapper;
+
+    @Autowired
+    private CommentLikeMapper commentLikeMapper;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private LikeCounterAggregator likeCounterAggregator;
+
+    private Long userId;
+
+    private Long postId;
+
+    private Long commentId;
+
+    @BeforeEach
+    public void setUp() {
+        User user = new User();
+        user.setEmail("like-toggle-" + UUID.randomUUID() + "@test.rednote");
+        user.setPasswordHash("-");
+        user.setNickname("点赞并发测试");
+        userMapper.insert(user);
+        userId = user.getId();
+
+        Post post = new Post();
+        post.setUserId(userId);
+        post.setTitle("点赞并发测试");
+        post.setContent("点赞并发测试正文");
+        post.setImages(new ArrayList<>());
+        post.setStatus(Post.STATUS_PUBLISHED);
+        postMapper.insert(post);
+        postId = post.getId();
+
+        Comment comment = new Comment();
+        comment.setPostId(postId);
+        comment.setUserId(userId);
+        comment.setContent("点赞并发测试评论");
+        commentMapper.insert(comment);
+        commentId = comment.getId();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        likeCounterAggregator.flush();
+        postLikeMapper.delete(new LambdaQueryWrapper<PostLike>().eq(PostLike::getPostId, postId));
+        commentLikeMapper.delete(new LambdaQueryWrapper<CommentLike>().eq(CommentLike::getCommentId, commentId));
+        commentMapper.deleteById(commentId);
+        postMapper.deleteById(postId);
+        userMapper.deleteById(userId);
+    }
+
+    @Test
+    public void concurrentPostToggles() throws Exception {
+        LambdaQueryWrapper<PostLike> mine = new LambdaQueryWrapper<PostLike>()
+                .eq(PostLike::getUserId, userId)
+                .eq(PostLike::getPostId, postId);
+
+        likeCounterAggregator.flush();
+        int countBefore = postMapper.selectById(postId).getLikeCount();
+        long likedBefore = postLikeMapper.selectCount(mine);
+
+        toggle(isLike -> postService.likePost(postId, isLike));
+
+        likeCounterAggregator.flush();
+        long likedAfter = postLikeMapper.selectCount(mine);
+        Assertions.assertTrue(likedAfter <= 1);
+        Assertions.assertEquals(countBefore - likedBefore + likedAfter, postMapper.selectById(postId).getLikeCount());
+    }
+
+    @Test
+    public void concurrentCommentToggles() throws Exception {
+        LambdaQueryWrapper<CommentLike> mine = new LambdaQueryWrapper<CommentLike>()
+                .eq(CommentLike::getUserId, userId)
+                .eq(CommentLike::getCommentId, commentId);
+
+        likeCounterAggregator.flush();
+        int countBefore = commentMapper.selectById(commentId).getLikeCount();
+        long likedBefore = commentLikeMapper.selectCount(mine);
+
+        toggle(isLike -> commentService.likeComment(commentId, isLike));
+
+        likeCounterAggregator.flush();
+        long likedAfter = commentLikeMapper.selectCount(mine);
+        Assertions.assertTrue(likedAfter <= 1);
+        Assertions.assertEquals(countBefore - likedBefore + likedAfter, commentMapper.selectById(commentId).getLikeCount());
+    }
+
+    private void toggle(LikeAction action) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < TOGGLES; i++) {
+                futures.add(pool.submit(() -> {
+                    UserContext.setUserId(userId);
+                    try {
+                        action.apply(ThreadLocalRandom.current().nextBoolean());
+                    } finally {
+                        UserContext.clear();
+                    }
+                }));
+            }
+            // 任何一次点击抛异常 (例如唯一键冲突) 都会在这里暴露
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private interface LikeAction {
+        void apply(boolean isLike);
+    }
+}
@@ -0,0 +1,118 @@
+package com.rednote;
+
+import com.rednote.common.ParallelStages;
+import com.rednote.config.AssemblyProperties;
+import com.rednote.config.ExecutorConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 列表页并行阶段：并行执行、阶段内的 SQL 超时、阶段等待超时、失败向上抛出和阶段计时
+ */
+public class ParallelStagesTest {
+
+    private ThreadPoolTaskExecutor executor;
+
+    private MeterRegistry meterRegistry;
+
+    private ParallelStages stages;
+
+    @BeforeEach
+    public void setUp() {
+        AssemblyProperties properties = new AssemblyProperties();
+        properties.setWorkers(4);
+        properties.setQueryTimeout(Duration.ofMillis(1500));
+        properties.setStageTimeout(Duration.ofMillis(300));
+        executor = new ExecutorConfig().assemblyExecutor(properties);
+        executor.initialize();
+        meterRegistry = new SimpleMeterRegistry();
+        stages = new ParallelStages();
+        ReflectionTestUtils.setField(stages, "assemblyExecutor", executor);
+        ReflectionTestUtils.setField(stages, "assemblyProperties", properties);
+        ReflectionTestUtils.setField(stages, "meterRegistry", meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void stagesRunConcurrently() {
+        long start = System.nanoTime();
+        CompletableFuture<String> a = stages.fork("test", "a", () -> sleepThen(100, "a"));
+        CompletableFuture<String> b = stages.fork("test", "b", () -> sleepThen(100, "b"));
+        Assertions.assertEquals("a", ParallelStages.join(a));
+        Assertions.assertEquals("b", ParallelStages.join(b));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        // 两个 100ms 的阶段并行，总耗时接近一个阶段
+        Assertions.assertTrue(elapsedMs < 180, "elapsed " + elapsedMs + " ms");
+        Assertions.assertEquals(1, meterRegistry.get("rednote.page.stage")
+                .tags("page", "test", "stage", "a", "outcome", "success").timer().count());
+    }
+
+    @Test
+    public void queryTimeoutOnlyInsideStages() {
+        Assertions.assertNull(ParallelStages.currentQueryTimeout());
+        // 1500ms 向上取整为 2 秒
+        Assertions.assertEquals(Integer.valueOf(2), stages.run("test", "query", ParallelStages::currentQueryTimeout));
+        Assertions.assertEquals(Integer.valueOf(2),
+                ParallelStages.join(stages.fork("test", "users", ParallelStages::currentQueryTimeout)));
+        Assertions.assertNull(ParallelStages.currentQueryTimeout());
+    }
+
+    @Test
+    public void failurePropagates() {
+        CompletableFuture<String> failed = stages.fork("test", "failed", () -> {
+            throw new IllegalStateException("boom");
+        });
+        IllegalStateException e = Assertions.assertThrows(IllegalStateException.class,
+                () -> ParallelStages.join(failed));
+        Assertions.assertEquals("boom", e.getMessage());
+        Assertions.assertEquals(1, meterRegistry.get("rednote.page.stage")
+                .tags("stage", "failed", "outcome", "failure").timer().count());
+    }
+
+    @Test
+    public void statementTimeoutIsRecordedAsTimeout() {
+        CompletableFuture<String> slow = stages.fork("test", "slow", () -> {
+            throw new QueryTimeoutException("cancelled", new SQLTimeoutException("Statement cancelled due to timeout"));
+        });
+        Assertions.assertThrows(QueryTimeoutException.class, () -> ParallelStages.join(slow));
+        Assertions.assertEquals(1, meterRegistry.get("rednote.page.stage")
+                .tags("stage", "slow", "outcome", "timeout").timer().count());
+    }
+
+    @Test
+    public void slowStageTimesOutWithoutBlockingJoin() {
+        long start = System.nanoTime();
+        CompletableFuture<String> slow = stages.fork("test", "stuck", () -> sleepThen(2000, "late"));
+        RuntimeException e = Assertions.assertThrows(RuntimeException.class, () -> ParallelStages.join(slow));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        Assertions.assertEquals("页面加载超时", e.getMessage());
+        // 300ms 的等待上限，不会等满 2 秒
+        Assertions.assertTrue(elapsedMs < 1000, "elapsed " + elapsedMs + " ms");
+        Assertions.assertEquals(1, meterRegistry.get("rednote.page.stage")
+                .tags("stage", "stuck", "outcome", "timeout").timer().count());
+    }
+
+    private static <T> T sleepThen(long millis, T value) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+}
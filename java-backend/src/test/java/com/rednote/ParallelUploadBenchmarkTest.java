@@ -0,0 +1,132 @@
+package com.rednote;
+
+import com.rednote.storage.LocalDiskStorageService;
+import com.rednote.storage.StorageService;
+import com.rednote.storage.ParallelUploader;
+import com.rednote.storage.UploadSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * 9 图帖子上传：逐张上传 vs 并发上传 (本地文件系统替身 + 模拟网络延迟，不依赖 OSS)
+ */
+public class ParallelUploadBenchmarkTest {
+
+    private static final int IMAGE_COUNT = 9;
+    private static final long LATENCY_MS = 100;
+
+    @TempDir
+    Path root;
+
+    @Test
+    public void sequentialVsParallel() {
+        StorageService store = new SlowStorageService(new LocalDiskStorageService(root, "http://localhost/files"), -1);
+        List<UploadSource> sources = images();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            ParallelUploader sequential = new ParallelUploader(store, executor, 1, Duration.ofSeconds(30));
+            long start = System.currentTimeMillis();
+            List<String> urls = sequential.uploadAll(sources);
+            long sequentialCost = System.currentTimeMillis() - start;
+
+            ParallelUploader parallel = new ParallelUploader(store, executor, 16, Duration.ofSeconds(30));
+            start = System.currentTimeMillis();
+            List<String> parallelUrls = parallel.uploadAll(sources);
+            long parallelCost = System.currentTimeMillis() - start;
+
+            System.out.println("sequential: " + sequentialCost + "ms, parallel: " + parallelCost + "ms");
+            Assertions.assertEquals(IMAGE_COUNT, urls.size());
+            Assertions.assertEquals(IMAGE_COUNT, parallelUrls.size());
+            Assertions.assertTrue(parallelCost < sequentialCost);
+        }
+    }
+
+    @Test
+    public void partialFailureCleansUp() throws IOException {
+        // 第 5 张上传失败，其余已上传的文件都要被删掉
+        StorageService store = new SlowStorageService(new LocalDiskStorageService(root, "http://localhost/files"), 5);
+        MeterRegistry registry = new SimpleMeterRegistry();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            ParallelUploader uploader = new ParallelUploader(store, executor, 16, Duration.ofSeconds(30), registry);
+            Assertions.assertThrows(RuntimeException.class, () -> uploader.uploadAll(images()));
+        }
+        Assertions.assertEquals(1, registry.get("storage.upload").tag("outcome", "failure").timer().count());
+        Assertions.assertEquals(1, registry.get("storage.upload.batch").tag("outcome", "failure").timer().count());
+        try (Stream<Path> files = Files.walk(root)) {
+            Assertions.assertEquals(0, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    public void timeoutCleansUp() throws IOException {
+        StorageService store = new SlowStorageService(new LocalDiskStorageService(root, "http://localhost/files"), -1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            ParallelUploader uploader = new ParallelUploader(store, executor, 16, Duration.ofMillis(LATENCY_MS / 2));
+            Assertions.assertThrows(RuntimeException.class, () -> uploader.uploadAll(images()));
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            Assertions.assertEquals(0, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    private static List<UploadSource> images() {
+        List<UploadSource> sources = new ArrayList<>();
+        for (int i = 0; i < IMAGE_COUNT; i++) {
+            sources.add(UploadSource.of("image" + i + ".jpg", new byte[256 * 1024], "image/jpeg"));
+        }
+        return sources;
+    }
+
+    /**
+     * 给本地替身加上固定延迟，模拟对象存储的网络往返
+     */
+    private static class SlowStorageService implements StorageService {
+
+        private final StorageService delegate;
+        private final int failAt;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        SlowStorageService(StorageService delegate, int failAt) {
+            this.delegate = delegate;
+            this.failAt = failAt;
+        }
+
+        @Override
+        public void put(String key, InputStream in, long size, String contentType) throws IOException {
+            try {
+                Thread.sleep(LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (counter.incrementAndGet() == failAt) {
+                throw new IOException("模拟上传失败");
+            }
+            delegate.put(key, in, size, contentType);
+        }
+
+        @Override
+        public void delete(List<String> keys) {
+            delegate.delete(keys);
+        }
+
+        @Override
+        public String urlOf(String key) {
+            return delegate.urlOf(key);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.rednote;
+
+import com.rednote.cache.PostDetailCache;
+import com.rednote.entity.Post;
+import com.rednote.entity.vo.PostDetailVO;
+import com.rednote.mapper.PostMapper;
+import com.rednote.service.PostService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 帖子详情缓存：本地 -> 二级 (测试环境为本地替身) -> 查库 的命中路径与失效
+ * 用自己插入的帖子，结束后删掉
+ */
+@SpringBootTest
+public class PostDetailCacheTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostMapper postMapper;
+
+    @Autowired
+    private PostDetailCache postDetailCache;
+
+    private Post post;
+
+    @BeforeEach
+    public void setUp() {
+        post = new Post();
+        post.setUserId(1L);
+        post.setTitle("详情缓存测试");
+        post.setContent("详情缓存测试正文");
+        post.setImages(new ArrayList<>());
+        post.setImgWidth(100);
+        post.setImgHeight(100);
+        post.setStatus(Post.STATUS_PUBLISHED);
+        postMapper.insert(post);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        postMapper.deleteById(post.getId());
+        postDetailCache.invalidate(post.getId());
+    }
+
+    @Test
+    public void readThroughAndInvalidate() {
+        Long postId = post.getId();
+        postDetailCache.invalidate(postId);
+
+        long misses = postDetailCache.missCount();
+        PostDetailVO first = postService.getPostDetailById(postId);
+        Assertions.assertEquals(misses + 1, postDetailCache.missCount());
+
+        // 第二次命中本地缓存
+        long localHits = postDetailCache.localHitCount();
+        PostDetailVO second = postService.getPostDetailById(postId);
+        Assertions.assertEquals(localHits + 1, postDetailCache.localHitCount());
+        Assertions.assertEquals(first.getTitle(), second.getTitle());
+        Assertions.assertNotSame(first, second);
+
+        // 本地被淘汰后命中二级缓存
+        postDetailCache.getLocalCache().invalidateAll();
+        long remoteHits = postDetailCache.remoteHitCount();
+        postService.getPostDetailById(postId);
+        Assertions.assertEquals(remoteHits + 1, postDetailCache.remoteHitCount());
+
+        // 编辑后两级缓存都失效，重新查库
+        Post update = new Post();
+        update.setId(postId);
+        update.setTitle("详情缓存测试 (已编辑)");
+        postService.updateById(update);
+        misses = postDetailCache.missCount();
+        Assertions.assertEquals("详情缓存测试 (已编辑)", postService.getPostDetailById(postId).getTitle());
+        Assertions.assertEquals(misses + 1, postDetailCache.missCount());
+    }
+
+    @Test
+    public void invalidateDuringLoadDoesNotCacheStaleValue() {
+        Long postId = post.getId();
+        postDetailCache.invalidate(postId);
+
+        // 回源查库期间另一个线程失效了这个帖子：查到的旧值可以返回给本次请求，但两级缓存都不能留下它
+        CompletableFuture<?>[] invalidation = new CompletableFuture<?>[1];
+        PostDetailVO stale = postDetailCache.get(postId, id -> {
+            invalidation[0] = CompletableFuture.runAsync(() -> postDetailCache.invalidate(id));
+            sleep(200);
+            PostDetailVO vo = new PostDetailVO();
+            vo.setId(id);
+            vo.setTitle("旧标题");
+            return vo;
+        });
+        invalidation[0].join();
+        Assertions.assertEquals("旧标题", stale.getTitle());
+        Assertions.assertNull(postDetailCache.getLocalCache().getIfPresent(postId));
+
+        long misses = postDetailCache.missCount();
+        Assertions.assertEquals("详情缓存测试", postService.getPostDetailById(postId).getTitle());
+        Assertions.assertEquals(misses + 1, postDetailCache.missCount());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
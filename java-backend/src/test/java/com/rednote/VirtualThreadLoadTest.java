@@ -0,0 +1,111 @@
+package com.rednote;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.rednote.common.UserContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 平台线程池 (模拟 Tomcat 默认 200 线程) vs 虚拟线程，连接池被打满时的吞吐与延迟
+ * 每个请求：一次占连接的查询 (SELECT SLEEP) + 一次不占连接的远程调用 (模拟 OSS，sleep)。
+ * 平台线程模式下线程数是上限，等远程调用的线程也占着名额；
+ * 虚拟线程模式下只有 Druid 连接数是上限，等待连接的请求在 Druid 里排队。
+ * 吞吐对比只打印结果、耗时长，标了 load，默认不跑 (mvn -P load test)；UserContext 隔离的断言在默认测试里
+ */
+@SpringBootTest
+public class VirtualThreadLoadTest {
+
+    private static final int REQUESTS = 2000;
+    private static final int PLATFORM_THREADS = 200;
+    private static final double QUERY_SECONDS = 0.005;
+    private static final long REMOTE_CALL_MS = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DruidDataSource dataSource;
+
+    @Test
+    @Tag("load")
+    public void platformVsVirtual() throws Exception {
+        Result platform;
+        try (ExecutorService executor = Executors.newFixedThreadPool(PLATFORM_THREADS)) {
+            platform = run(executor);
+        }
+        Result virtual;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            virtual = run(executor);
+        }
+
+        System.out.printf("platform(%d): %.0f req/s, p50 %d ms, p99 %d ms, max druid waiters %d%n",
+                PLATFORM_THREADS, platform.throughput, platform.p50, platform.p99, platform.maxWaiters);
+        System.out.printf("virtual:       %.0f req/s, p50 %d ms, p99 %d ms, max druid waiters %d%n",
+                virtual.throughput, virtual.p50, virtual.p99, virtual.maxWaiters);
+        System.out.printf("druid max-active %d%n", dataSource.getMaxActive());
+    }
+
+    @Test
+    public void userContextIsIsolatedPerVirtualThread() throws Exception {
+        AtomicInteger mismatches = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (long i = 0; i < 10_000; i++) {
+                long userId = i;
+                futures.add(executor.submit(() -> UserContext.runWith(userId, () -> {
+                    Thread.yield();
+                    if (!Long.valueOf(userId).equals(UserContext.getUserId())) {
+                        mismatches.incrementAndGet();
+                    }
+                })));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        Assertions.assertEquals(0, mismatches.get());
+    }
+
+    private Result run(ExecutorService executor) throws Exception {
+        long[] latencies = new long[REQUESTS];
+        AtomicInteger maxWaiters = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>(REQUESTS);
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            int index = i;
+            long submitted = System.nanoTime();
+            futures.add(executor.submit(() -> {
+                jdbcTemplate.queryForObject("SELECT SLEEP(?)", Integer.class, QUERY_SECONDS);
+                maxWaiters.accumulateAndGet(dataSource.getWaitThreadCount(), Math::max);
+                try {
+                    Thread.sleep(REMOTE_CALL_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                latencies[index] = (System.nanoTime() - submitted) / 1_000_000;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        return new Result(REQUESTS * 1_000_000_000.0 / elapsed,
+                latencies[REQUESTS / 2], latencies[REQUESTS * 99 / 100], maxWaiters.get());
+    }
+
+    private record Result(double throughput, long p50, long p99, int maxWaiters) {
+    }
+}
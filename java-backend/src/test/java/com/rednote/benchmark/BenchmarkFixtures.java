@@ -0,0 +1,273 @@
+package com.rednote.benchmark;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.rednote.cache.FeedItem;
+import com.rednote.cache.FeedTimeline;
+import com.rednote.cache.HotCommentIndex;
+import com.rednote.cache.UserSummaryCache;
+import com.rednote.common.CursorCodec;
+import com.rednote.common.ParallelStages;
+import com.rednote.config.AssemblyProperties;
+import com.rednote.config.CacheProperties;
+import com.rednote.config.ExecutorConfig;
+import com.rednote.converter.CommentConverter;
+import com.rednote.converter.PostConverter;
+import com.rednote.counter.LikeCounterAggregator;
+import com.rednote.entity.Comment;
+import com.rednote.entity.CommentLike;
+import com.rednote.entity.ImageRendition;
+import com.rednote.entity.Post;
+import com.rednote.entity.PostLike;
+import com.rednote.entity.User;
+import com.rednote.entity.vo.CommentVO;
+import com.rednote.mapper.CommentLikeMapper;
+import com.rednote.mapper.CommentMapper;
+import com.rednote.mapper.PostLikeMapper;
+import com.rednote.mapper.PostMapper;
+import com.rednote.mapper.UserMapper;
+import com.rednote.service.PostService;
+import com.rednote.service.impl.CommentServiceImpl;
+import com.rednote.service.impl.PostServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mockito;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+/**
+ * 基准测试用的 Service 装配：Mapper 全部换成返回内存数据的桩，缓存预热，
+ * 只剩 CPU 侧的 VO 组装 (桩本身每次调用约有 1 微秒以内的固定开销)
+ */
+final class BenchmarkFixtures {
+
+    static final int USERS = 200;
+    static final int POSTS = 1000;
+
+    static final CursorCodec CURSOR_CODEC = new CursorCodec("benchmark-cursor-secret");
+
+    private static final CommentConverter COMMENT_CONVERTER = Mappers.getMapper(CommentConverter.class);
+
+    // 与线上相同的有界线程池，守护线程，JMH 子进程结束时不用等它
+    private static final ParallelStages PARALLEL_STAGES = parallelStages();
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * LambdaQueryWrapper 解析列名需要实体的表信息，没有 Spring 容器时手动初始化
+     */
+    static void initTableInfo() {
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        for (Class<?> entity : List.of(Post.class, PostLike.class, Comment.class, CommentLike.class, User.class)) {
+            if (TableInfoHelper.getTableInfo(entity) == null) {
+                TableInfoHelper.initTableInfo(assistant, entity);
+            }
+        }
+    }
+
+    static UserSummaryCache userSummaryCache() {
+        UserMapper userMapper = Mockito.mock(UserMapper.class);
+        Mockito.when(userMapper.selectBatchIds(any())).thenAnswer(invocation -> {
+            List<User> users = new ArrayList<>();
+            for (Object id : (Collection<?>) invocation.getArgument(0)) {
+                users.add(user((Long) id));
+            }
+            return users;
+        });
+        UserSummaryCache cache = new UserSummaryCache();
+        ReflectionTestUtils.setField(cache, "userMapper", userMapper);
+        ReflectionTestUtils.setField(cache, "cacheProperties", new CacheProperties());
+        cache.init();
+        // 预热：热门作者全部命中内存
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= USERS; id++) {
+            ids.add(id);
+        }
+        cache.getAll(ids);
+        return cache;
+    }
+
+    /**
+     * 首页 Feed：时间线窗口装满最新 POSTS 条帖子，当前用户点赞过其中三分之一
+     */
+    static PostServiceImpl postService(UserSummaryCache userSummaryCache, LikeCounterAggregator aggregator) {
+        PostMapper postMapper = Mockito.mock(PostMapper.class);
+        Mockito.doAnswer(invocation -> {
+            ResultHandler<FeedItem> handler = invocation.getArgument(1);
+            DefaultResultContext<FeedItem> context = new DefaultResultContext<>();
+            for (long id = POSTS; id >= 1; id--) {
+                context.nextResultObject(FeedItem.of(post(id)));
+                handler.handleResult(context);
+            }
+            return null;
+        }).when(postMapper).selectTimelineWindow(anyInt(), any());
+
+        FeedTimeline feedTimeline = new FeedTimeline();
+        ReflectionTestUtils.setField(feedTimeline, "postMapper", postMapper);
+        ReflectionTestUtils.setField(feedTimeline, "cacheProperties", new CacheProperties());
+        feedTimeline.rebuild();
+
+        PostLikeMapper postLikeMapper = Mockito.mock(PostLikeMapper.class);
+        Mockito.when(postLikeMapper.selectList(any())).thenAnswer(invocation -> {
+            List<PostLike> likes = new ArrayList<>();
+            for (long id = POSTS; id > POSTS - 30; id -= 3) {
+                PostLike like = new PostLike();
+                like.setPostId(id);
+                likes.add(like);
+            }
+            return likes;
+        });
+
+        PostServiceImpl service = new PostServiceImpl();
+        ReflectionTestUtils.setField(service, "baseMapper", postMapper);
+        ReflectionTestUtils.setField(service, "feedTimeline", feedTimeline);
+        ReflectionTestUtils.setField(service, "userSummaryCache", userSummaryCache);
+        ReflectionTestUtils.setField(service, "postLikeMapper", postLikeMapper);
+        ReflectionTestUtils.setField(service, "likeCounterAggregator", aggregator);
+        ReflectionTestUtils.setField(service, "postConverter", Mappers.getMapper(PostConverter.class));
+        ReflectionTestUtils.setField(service, "cursorCodec", CURSOR_CODEC);
+        ReflectionTestUtils.setField(service, "parallelStages", PARALLEL_STAGES);
+        return service;
+    }
+
+    /**
+     * 评论区首屏：每条一级评论都带一条 Top Reply (与 selectCommentFeed 一次联表查出)
+     */
+    static CommentServiceImpl commentService(UserSummaryCache userSummaryCache, LikeCounterAggregator aggregator) {
+        CommentMapper commentMapper = Mockito.mock(CommentMapper.class);
+        Mockito.when(commentMapper.selectCommentFeed(anyLong(), any(), any(), anyInt(), any()))
+                .thenAnswer(invocation -> {
+                    int limit = invocation.getArgument(3);
+                    List<CommentVO> list = new ArrayList<>(limit);
+                    for (long id = 1; id <= limit; id++) {
+                        list.add(rootComment(id));
+                    }
+                    return list;
+                });
+        CommentLikeMapper commentLikeMapper = Mockito.mock(CommentLikeMapper.class);
+        Mockito.when(commentLikeMapper.selectList(any())).thenAnswer(invocation -> new ArrayList<>());
+
+        PostService postService = Mockito.mock(PostService.class);
+
+        // 排行索引关闭：这里测的是 VO 组装，两条路径取到的数据相同
+        CacheProperties cacheProperties = new CacheProperties();
+        cacheProperties.getHotComments().setEnabled(false);
+        HotCommentIndex hotCommentIndex = new HotCommentIndex();
+        ReflectionTestUtils.setField(hotCommentIndex, "cacheProperties", cacheProperties);
+
+        CommentServiceImpl service = new CommentServiceImpl();
+        ReflectionTestUtils.setField(service, "baseMapper", commentMapper);
+        ReflectionTestUtils.setField(service, "commentLikeMapper", commentLikeMapper);
+        ReflectionTestUtils.setField(service, "userSummaryCache", userSummaryCache);
+        ReflectionTestUtils.setField(service, "postService", postService);
+        ReflectionTestUtils.setField(service, "likeCounterAggregator", aggregator);
+        ReflectionTestUtils.setField(service, "commentConverter", COMMENT_CONVERTER);
+        ReflectionTestUtils.setField(service, "hotCommentIndex", hotCommentIndex);
+        ReflectionTestUtils.setField(service, "parallelStages", PARALLEL_STAGES);
+        ReflectionTestUtils.setField(service, "cursorCodec", CURSOR_CODEC);
+        return service;
+    }
+
+    private static ParallelStages parallelStages() {
+        AssemblyProperties assemblyProperties = new AssemblyProperties();
+        ThreadPoolTaskExecutor executor = new ExecutorConfig().assemblyExecutor(assemblyProperties);
+        executor.setDaemon(true);
+        executor.initialize();
+        ParallelStages stages = new ParallelStages();
+        ReflectionTestUtils.setField(stages, "assemblyExecutor", executor);
+        ReflectionTestUtils.setField(stages, "assemblyProperties", assemblyProperties);
+        ReflectionTestUtils.setField(stages, "meterRegistry", new SimpleMeterRegistry());
+        return stages;
+    }
+
+    static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@rednote.com");
+        user.setPasswordHash("$2a$10$7EqJtq98hPqEX7fNZaFWoOHi5BWHZm0rLx3U5dY5Q4Fv1mQ1w2J5K");
+        user.setNickname("用户" + id);
+        user.setAvatarUrl("https://red-note.oss-cn-hangzhou.aliyuncs.com/avatar/" + id + ".jpg");
+        user.setBio("这个人很懒，什么都没有写");
+        user.setCreatedAt(LocalDateTime.of(2025, 11, 1, 12, 0));
+        user.setUpdatedAt(LocalDateTime.of(2025, 11, 1, 12, 0));
+        return user;
+    }
+
+    static Post post(long id) {
+        Post post = new Post();
+        post.setId(id);
+        post.setUserId(id % USERS + 1);
+        post.setTitle("周末探店｜藏在巷子里的咖啡馆 #" + id);
+        post.setContent("一段不算短的正文，".repeat(20));
+        List<String> images = new ArrayList<>();
+        List<ImageRendition> renditions = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String base = "https://red-note.oss-cn-hangzhou.aliyuncs.com/2025/11/26/" + id + "-" + i;
+            images.add(base + ".jpg");
+            renditions.add(new ImageRendition(base + "-thumb.jpg", base + "-feed.jpg", base + "-detail.jpg", null));
+        }
+        post.setImages(images);
+        post.setImageRenditions(renditions);
+        post.setCoverUrl(renditions.getFirst().getFeed());
+        post.setLikeCount((int) (id * 7 % 1000));
+        post.setCommentCount((int) (id % 50));
+        post.setImgWidth(1080);
+        post.setImgHeight(1440);
+        post.setStatus(Post.STATUS_PUBLISHED);
+        post.setCreatedAt(LocalDateTime.of(2025, 11, 26, 12, 0));
+        post.setUpdatedAt(LocalDateTime.of(2025, 11, 26, 12, 0));
+        return post;
+    }
+
+    static Comment reply(long rootId) {
+        Comment reply = new Comment();
+        reply.setId(10_000 + rootId);
+        reply.setPostId(1L);
+        reply.setUserId(rootId % USERS + 2);
+        reply.setContent("同意楼上，周末去试试");
+        reply.setLikeCount(3);
+        reply.setParentId(rootId);
+        reply.setRootParentId(rootId);
+        reply.setCreatedAt(LocalDateTime.of(2025, 11, 26, 13, 0));
+        reply.setImageUrl("https://red-note.oss-cn-hangzhou.aliyuncs.com/2025/11/26/r" + rootId + ".jpg");
+        reply.setImageWidth(720);
+        reply.setImageHeight(960);
+        reply.setImageThumbUrl("https://red-note.oss-cn-hangzhou.aliyuncs.com/2025/11/26/r" + rootId + "-thumb.jpg");
+        reply.setImageDetailUrl("https://red-note.oss-cn-hangzhou.aliyuncs.com/2025/11/26/r" + rootId + "-detail.jpg");
+        return reply;
+    }
+
+    private static CommentVO rootComment(long id) {
+        CommentVO vo = new CommentVO();
+        vo.setId(id);
+        vo.setPostId(1L);
+        vo.setUserId(id % USERS + 1);
+        vo.setContent("拍得真好，请问是哪家店？");
+        vo.setLikeCount((int) (1000 - id));
+        vo.setIsLiked(id % 4 == 0);
+        vo.setCreatedAt(LocalDateTime.of(2025, 11, 26, 12, 30));
+        if (id % 5 == 0) {
+            vo.setImageUrl("https://red-note.oss-cn-hangzhou.aliyuncs.com/2025/11/26/c" + id + ".jpg");
+            vo.setImageWidth(720);
+            vo.setImageHeight(960);
+        }
+        vo.setReplyCount(id * 3);
+        CommentVO topReply = COMMENT_CONVERTER.toVO(reply(id));
+        topReply.setIsLiked(false);
+        vo.setTopReply(topReply);
+        return vo;
+    }
+}
@@ -0,0 +1,144 @@
+package com.rednote.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.rednote.cache.UserSummaryCache;
+import com.rednote.common.CursorCodec;
+import com.rednote.common.Result;
+import com.rednote.common.UserContext;
+import com.rednote.counter.LikeCounterAggregator;
+import com.rednote.utils.JwtUtils;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求两端的编解码
+ * legacyCommentCursor         - 原来 "likeCount-id" 的 split 解析 (对照)
+ * feedCursor / commentCursor  - CursorCodec 解码 (base64url + HMAC 校验 + 变长整数)
+ * encodeCommentCursor         - CursorCodec 编码
+ * jwtSign / jwtParse         - 登录签发、缓存未命中时的验签
+ * jsonPostFeed / jsonCommentFeed - Result<CursorResult<...>> 的 Jackson 序列化 (10 条)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodecBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+
+    private String legacyCommentCursor;
+
+    private CursorCodec cursorCodec;
+
+    private String feedCursor;
+
+    private String commentCursor;
+
+    private String token;
+
+    private ObjectMapper objectMapper;
+
+    private Result<?> postFeed;
+
+    private Result<?> commentFeed;
+
+    @Setup
+    public void setup() {
+        legacyCommentCursor = "1024-7654321";
+        cursorCodec = new CursorCodec(SECRET);
+        feedCursor = cursorCodec.encode(CursorCodec.Kind.POST_FEED, 1234567L);
+        commentCursor = cursorCodec.encode(CursorCodec.Kind.COMMENT_FEED, 1024L, 7654321L);
+
+        new JwtUtils().setSecretKey(SECRET);
+        token = JwtUtils.generateToken(6L);
+
+        // 与 Spring Boot 默认的 ObjectMapper 配置一致 (日期输出为字符串)
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        BenchmarkFixtures.initTableInfo();
+        UserSummaryCache userSummaryCache = BenchmarkFixtures.userSummaryCache();
+        LikeCounterAggregator aggregator = new LikeCounterAggregator();
+        UserContext.setUserId(1L);
+        postFeed = Result.success(BenchmarkFixtures.postService(userSummaryCache, aggregator).getFeedList(null, 10));
+        commentFeed = Result.success(BenchmarkFixtures.commentService(userSummaryCache, aggregator)
+                .getCommentFeed(1L, null, 10));
+    }
+
+    @TearDown
+    public void tearDown() {
+        UserContext.clear();
+    }
+
+    @Benchmark
+    public void legacyCommentCursor(Blackhole bh) {
+        String[] parts = legacyCommentCursor.split("-");
+        if (parts.length == 2) {
+            bh.consume(Integer.parseInt(parts[0]));
+            bh.consume(Long.parseLong(parts[1]));
+        }
+    }
+
+    @Benchmark
+    public long[] feedCursor() {
+        return cursorCodec.decode(CursorCodec.Kind.POST_FEED, feedCursor);
+    }
+
+    @Benchmark
+    public long[] commentCursor() {
+        return cursorCodec.decode(CursorCodec.Kind.COMMENT_FEED, commentCursor);
+    }
+
+    @Benchmark
+    public String encodeCommentCursor() {
+        return cursorCodec.encode(CursorCodec.Kind.COMMENT_FEED, 1024L, 7654321L);
+    }
+
+    @Benchmark
+    public String jwtSign() {
+        return JwtUtils.generateToken(6L);
+    }
+
+    @Benchmark
+    public Claims jwtParse() {
+        return JwtUtils.parseToken(token);
+    }
+
+    @Benchmark
+    public byte[] jsonPostFeed() throws Exception {
+        return objectMapper.writeValueAsBytes(postFeed);
+    }
+
+    @Benchmark
+    public byte[] jsonCommentFeed() throws Exception {
+        return objectMapper.writeValueAsBytes(commentFeed);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CodecBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,96 @@
+package com.rednote.benchmark;
+
+import com.rednote.cache.UserSummaryCache;
+import com.rednote.common.CursorCodec;
+import com.rednote.common.CursorResult;
+import com.rednote.common.UserContext;
+import com.rednote.counter.LikeCounterAggregator;
+import com.rednote.entity.vo.CommentVO;
+import com.rednote.entity.vo.PostInfoVO;
+import com.rednote.service.impl.CommentServiceImpl;
+import com.rednote.service.impl.PostServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 列表接口的 VO 组装 (数据已在内存，不含 SQL)
+ * postFeed       - PostServiceImpl.getFeedList 第一页，命中时间线 + 用户摘要缓存
+ * postFeedDeep   - 翻到时间线窗口中部的一页
+ * commentFeed    - CommentServiceImpl.getCommentFeed 第一页，每条带 Top Reply
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeedAssemblyBenchmark {
+
+    @Param({"10", "20"})
+    private int size;
+
+    private PostServiceImpl postService;
+
+    private CommentServiceImpl commentService;
+
+    private String deepCursor;
+
+    @Setup
+    public void setup() {
+        BenchmarkFixtures.initTableInfo();
+        UserSummaryCache userSummaryCache = BenchmarkFixtures.userSummaryCache();
+        LikeCounterAggregator aggregator = new LikeCounterAggregator();
+        // 一部分帖子和评论带着尚未落库的点赞增量
+        for (long id = 1; id <= BenchmarkFixtures.POSTS; id += 7) {
+            aggregator.incrementPost(id, 1);
+            aggregator.incrementComment(id, 1);
+        }
+        postService = BenchmarkFixtures.postService(userSummaryCache, aggregator);
+        commentService = BenchmarkFixtures.commentService(userSummaryCache, aggregator);
+        deepCursor = BenchmarkFixtures.CURSOR_CODEC.encode(CursorCodec.Kind.POST_FEED, BenchmarkFixtures.POSTS / 2);
+        // JMH 在同一个工作线程上执行 Setup 和基准方法
+        UserContext.setUserId(1L);
+    }
+
+    @TearDown
+    public void tearDown() {
+        UserContext.clear();
+    }
+
+    @Benchmark
+    public CursorResult<PostInfoVO> postFeed() {
+        return postService.getFeedList(null, size);
+    }
+
+    @Benchmark
+    public CursorResult<PostInfoVO> postFeedDeep() {
+        return postService.getFeedList(deepCursor, size);
+    }
+
+    @Benchmark
+    public CursorResult<CommentVO> commentFeed() {
+        return commentService.getCommentFeed(1L, null, size);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FeedAssemblyBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
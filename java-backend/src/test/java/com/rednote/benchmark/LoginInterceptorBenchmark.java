@@ -0,0 +1,90 @@
+package com.rednote.benchmark;
+
+import com.rednote.common.UserContext;
+import com.rednote.interceptor.LoginInterceptor;
+import com.rednote.utils.JwtUtils;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LoginInterceptor 鉴权路径
+ * legacy      - 原实现：每次新建解析器，validateToken + getUserId 验签两次
+ * singleParse - 共用解析器，验签一次 (缓存未命中时的路径)
+ * interceptor - 现在的 preHandle，同一个 Token 重复请求命中已验证缓存
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginInterceptorBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+
+    private Key key;
+
+    private String token;
+
+    private LoginInterceptor interceptor;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setup() {
+        new JwtUtils().setSecretKey(SECRET);
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        token = JwtUtils.generateToken(6L);
+        interceptor = new LoginInterceptor();
+        request = new MockHttpServletRequest("GET", "/posts/feed");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Long legacy() {
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        return Long.parseLong(Jwts.parserBuilder().setSigningKey(key).build()
+                .parseClaimsJws(token).getBody().getSubject());
+    }
+
+    @Benchmark
+    public Long singleParse() {
+        return Long.parseLong(JwtUtils.parseToken(token).getSubject());
+    }
+
+    @Benchmark
+    public boolean interceptor() throws Exception {
+        boolean passed = interceptor.preHandle(request, response, null);
+        UserContext.clear();
+        return passed;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LoginInterceptorBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
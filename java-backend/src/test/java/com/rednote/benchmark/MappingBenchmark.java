@@ -0,0 +1,119 @@
+package com.rednote.benchmark;
+
+import cn.hutool.core.bean.BeanUtil;
+import com.rednote.converter.CommentConverter;
+import com.rednote.converter.PostConverter;
+import com.rednote.converter.UserConverter;
+import com.rednote.counter.LikeCounterAggregator;
+import com.rednote.entity.Comment;
+import com.rednote.entity.Post;
+import com.rednote.entity.User;
+import com.rednote.entity.vo.CommentVO;
+import com.rednote.entity.vo.PostDetailVO;
+import com.rednote.entity.vo.UserInfoVO;
+import com.rednote.service.impl.CommentServiceImpl;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 实体转 VO：hutool BeanUtil.copyProperties (反射，原 publishPost、login/register 的写法)
+ * vs MapStruct 编译期生成的 Converter
+ * commentToVO - CommentServiceImpl.convertToVO (Converter + 点赞增量叠加)
+ * 配合 -prof gc 看 gc.alloc.rate.norm：BeanUtil 每次调用都有反射和中间对象的分配
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    private Post post;
+
+    private User user;
+
+    private Comment comment;
+
+    private CommentServiceImpl commentService;
+
+    private MethodHandle convertToVO;
+
+    private final PostConverter postConverter = Mappers.getMapper(PostConverter.class);
+
+    private final UserConverter userConverter = Mappers.getMapper(UserConverter.class);
+
+    private final CommentConverter commentConverter = Mappers.getMapper(CommentConverter.class);
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        post = BenchmarkFixtures.post(42L);
+        user = BenchmarkFixtures.user(42L);
+        comment = BenchmarkFixtures.reply(42L);
+        commentService = BenchmarkFixtures.commentService(BenchmarkFixtures.userSummaryCache(),
+                new LikeCounterAggregator());
+        // convertToVO 是私有方法，MethodHandle 的调用开销远小于方法本身
+        convertToVO = MethodHandles.privateLookupIn(CommentServiceImpl.class, MethodHandles.lookup())
+                .findVirtual(CommentServiceImpl.class, "convertToVO",
+                        MethodType.methodType(CommentVO.class, Comment.class));
+    }
+
+    @Benchmark
+    public PostDetailVO postDetailBeanUtil() {
+        return BeanUtil.copyProperties(post, PostDetailVO.class);
+    }
+
+    @Benchmark
+    public PostDetailVO postDetailConverter() {
+        return postConverter.toDetailVO(post);
+    }
+
+    @Benchmark
+    public UserInfoVO userInfoBeanUtil() {
+        return BeanUtil.copyProperties(user, UserInfoVO.class);
+    }
+
+    @Benchmark
+    public UserInfoVO userInfoConverter() {
+        return userConverter.toInfoVO(user);
+    }
+
+    @Benchmark
+    public CommentVO commentBeanUtil() {
+        return BeanUtil.copyProperties(comment, CommentVO.class);
+    }
+
+    @Benchmark
+    public CommentVO commentConverter() {
+        return commentConverter.toVO(comment);
+    }
+
+    @Benchmark
+    public CommentVO commentToVO() throws Throwable {
+        return (CommentVO) convertToVO.invokeExact(commentService, comment);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MappingBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}